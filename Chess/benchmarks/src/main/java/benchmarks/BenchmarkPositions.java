@@ -0,0 +1,48 @@
+package benchmarks;
+
+import chess.Board;
+
+/**
+ * The positions every benchmark runs on, chosen to cover the opening, a busy middlegame
+ * with castling and en passant chances, a quieter middlegame and an endgame.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class BenchmarkPositions {
+
+	public static final String START = "start";
+	public static final String KIWIPETE = "kiwipete";
+	public static final String MIDDLEGAME = "middlegame";
+	public static final String ENDGAME = "endgame";
+
+	private BenchmarkPositions () {
+	}
+
+	/**
+	 * @param name - One of the position names above.
+	 * @return The FEN layout of the position. White is to move in every position.
+	 */
+	public static String layout (String name) {
+		switch (name) {
+		case START:
+			return Board.DEFAULT_START_LAYOUT;
+		case KIWIPETE:
+			return "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+		case MIDDLEGAME:
+			return "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1";
+		case ENDGAME:
+			return "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8";
+		default:
+			throw new RuntimeException("Unknown benchmark position: " + name);
+		}
+	}
+
+	/**
+	 * @param name - One of the position names above.
+	 * @return The full six-field FEN of the position.
+	 */
+	public static String fen (String name) {
+		return new Board(layout(name)).toFen();
+	}
+}
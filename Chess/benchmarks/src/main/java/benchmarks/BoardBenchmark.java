@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import chess.Board;
+import chess.Move;
+import chess.MoveGenerator;
+
+/**
+ * Move generation, playing moves and check detection.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+	@Param({ BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME })
+	public String position;
+
+	private Board board;
+	private ArrayList<Move> moves;
+	private int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+	@Setup
+	public void setUp () {
+		this.board = new Board(BenchmarkPositions.layout(this.position));
+		this.moves = this.board.getLegalMoves(this.board.getCurrentPlayer());
+	}
+
+	@Benchmark
+	public ArrayList<Move> getLegalMoves () {
+		return this.board.getLegalMoves(this.board.getCurrentPlayer());
+	}
+
+	@Benchmark
+	public int getLegalMovesIntoBuffer () {
+		return this.board.getLegalMoves(this.board.getCurrentPlayer(), this.moveBuffer);
+	}
+
+	/**
+	 * Play every legal move of the position on a copy of the board.
+	 */
+	@Benchmark
+	public void executeEveryMove (Blackhole blackhole) {
+		for (Move move : this.moves)
+			blackhole.consume(move.execute());
+	}
+
+	/**
+	 * Play and take back every legal move of the position in place.
+	 */
+	@Benchmark
+	public long makeUnmakeEveryMove () {
+		long keys = 0;
+		for (Move move : this.moves) {
+			this.board.makeMove(move);
+			keys ^= this.board.getKey();
+			this.board.unmakeMove(move);
+		}
+		return keys;
+	}
+
+	@Benchmark
+	public boolean inCheck () {
+		return this.board.inCheck(this.board.getCurrentPlayer());
+	}
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import evaluators.BoardEvaluator;
+import evaluators.Evaluator_1;
+import evaluators.Evaluator_2;
+import evaluators.Evaluator_3;
+
+/**
+ * Static evaluation of a position.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+	@Param({ BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME })
+	public String position;
+
+	private Board board;
+	private BoardEvaluator evaluator1;
+	private BoardEvaluator evaluator2;
+	private BoardEvaluator evaluator3;
+
+	@Setup
+	public void setUp () {
+		this.board = new Board(BenchmarkPositions.layout(this.position));
+		this.evaluator1 = new Evaluator_1();
+		this.evaluator2 = new Evaluator_2();
+		this.evaluator3 = new Evaluator_3();
+	}
+
+	@Benchmark
+	public int evaluator1 () {
+		return this.evaluator1.evaluate(this.board);
+	}
+
+	@Benchmark
+	public int evaluator2 () {
+		return this.evaluator2.evaluate(this.board);
+	}
+
+	@Benchmark
+	public int evaluator3 () {
+		return this.evaluator3.evaluate(this.board);
+	}
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.Notation;
+import chess.San;
+
+/**
+ * Reading boards from FEN and writing them back out, and reading and writing every legal
+ * move of a board in SAN.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+
+	@Param({ BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME })
+	public String position;
+
+	private String fen;
+	private Board board;
+	private StringBuilder builder;
+
+	private int[] moves;
+	private int numMoves;
+	private String[] sanMoves;
+
+	@Setup
+	public void setUp () {
+		this.fen = BenchmarkPositions.fen(this.position);
+		this.board = new Board(this.fen);
+		this.builder = new StringBuilder(Fen.MAX_LENGTH);
+
+		this.moves = new int[MoveGenerator.MAX_MOVES];
+		this.numMoves = this.board.getLegalMoves(this.board.getCurrentPlayer(), this.moves);
+		this.sanMoves = new String[this.numMoves];
+		for (int i = 0; i < this.numMoves; i++)
+			this.sanMoves[i] = San.encode(this.board, this.moves[i]);
+	}
+
+	@Benchmark
+	public Board parseFen () {
+		return new Board(this.fen);
+	}
+
+	@Benchmark
+	public String getLayout () {
+		return Notation.getLayout(this.board);
+	}
+
+	@Benchmark
+	public String toFen () {
+		return this.board.toFen();
+	}
+
+	/**
+	 * Writing into a reused builder, as a batch job writing many positions would.
+	 */
+	@Benchmark
+	public int appendFen () {
+		this.builder.setLength(0);
+		return Fen.append(this.board, this.builder).length();
+	}
+
+	/**
+	 * Writing every legal move in SAN from one list of legal moves.
+	 */
+	@Benchmark
+	public int encodeSan () {
+		this.builder.setLength(0);
+		for (int i = 0; i < this.numMoves; i++)
+			San.append(this.board, this.moves[i], this.moves, this.numMoves, this.builder);
+		return this.builder.length();
+	}
+
+	/**
+	 * Looking every legal move up from its SAN in one list of legal moves.
+	 */
+	@Benchmark
+	public int decodeSan () {
+		int sum = 0;
+		for (String san : this.sanMoves)
+			sum += San.decode(san, this.moves, this.numMoves);
+		return sum;
+	}
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.Board;
+import chess.Move;
+import evaluators.BoardEvaluator;
+import evaluators.Evaluator_1;
+import evaluators.Evaluator_2;
+import evaluators.Evaluator_3;
+import player.ai.AlphaBetaSelector;
+import player.ai.TranspositionTable;
+
+/**
+ * A single-threaded search of each position to a fixed depth, starting from an empty
+ * transposition table every time so that runs do not help each other.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({ BenchmarkPositions.START, BenchmarkPositions.KIWIPETE, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME })
+	public String position;
+
+	@Param({ "3" })
+	public int depth;
+
+	@Param({ "1", "2", "3" })
+	public int evaluator;
+
+	private Board board;
+	private TranspositionTable table;
+	private AlphaBetaSelector selector;
+
+	@Setup
+	public void setUp () {
+		this.board = new Board(BenchmarkPositions.layout(this.position));
+		this.table = new TranspositionTable(16);
+		this.selector = new AlphaBetaSelector(this.depth, createEvaluator(this.evaluator), this.table);
+	}
+
+	private static BoardEvaluator createEvaluator (int evaluator) {
+		switch (evaluator) {
+		case 1:
+			return new Evaluator_1();
+		case 2:
+			return new Evaluator_2();
+		default:
+			return new Evaluator_3();
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void clearTable () {
+		this.table.clear();
+	}
+
+	@Benchmark
+	public Move fixedDepthSearch () {
+		return this.selector.bestMove(this.board);
+	}
+}
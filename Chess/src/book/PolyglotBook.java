@@ -0,0 +1,212 @@
+package book;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import chess.Board;
+import chess.MoveCode;
+import chess.MoveGenerator;
+import pieces.PieceType;
+
+/**
+ * An opening book in the Polyglot .bin format, read straight from the file.
+ *
+ * The book is a list of 16 byte entries sorted by the Polyglot key of their position,
+ * each giving one move and its weight. The file is mapped into memory rather than read,
+ * so opening a book costs nothing however large it is, and it takes no room on the heap.
+ * The operating system pages in only the parts of the file a lookup touches, which for a
+ * binary search is a couple of dozen entries.
+ *
+ * Lookups only read the mapping, so one book may be shared by any number of threads.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class PolyglotBook implements Closeable {
+
+	public static final int ENTRY_SIZE = 16;
+
+	// The most moves one position can have, and so the most book entries it can have.
+	public static final int MAX_ENTRIES = MoveGenerator.MAX_MOVES;
+
+	// A mapping cannot be larger than 2GB, so larger books are mapped in pieces. Each piece
+	// holds a whole number of entries.
+	private static final int ENTRIES_PER_CHUNK = 1 << 26;
+	private static final long CHUNK_SIZE = (long) ENTRIES_PER_CHUNK * ENTRY_SIZE;
+
+	// Promotion types, by the number Polyglot gives them.
+	private static final PieceType[] PROMOTIONS = { null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN };
+
+	private final FileChannel channel;
+	private final MappedByteBuffer[] chunks;
+	private final long size;
+
+	/**
+	 * @param path - The .bin file of the book.
+	 */
+	public PolyglotBook (Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		long length = this.channel.size();
+		if (length % ENTRY_SIZE != 0) {
+			this.channel.close();
+			throw new IOException("Not a Polyglot book, its length is not a multiple of " + ENTRY_SIZE + ": " + path);
+		}
+		this.size = length / ENTRY_SIZE;
+
+		this.chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+		for (int i = 0; i < this.chunks.length; i++) {
+			long start = i * CHUNK_SIZE;
+			this.chunks[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, length - start));
+		}
+	}
+
+	/**
+	 * @return The number of entries in the book.
+	 */
+	public long size () {
+		return this.size;
+	}
+
+	/**
+	 * Find the book moves for a position.
+	 *
+	 * @param board
+	 * @param moves - Filled with the book moves, as move codes.
+	 * @param weights - Filled with the weight of each move.
+	 * @return The number of book moves that are legal in the position.
+	 */
+	public int getMoves (Board board, int[] moves, int[] weights) {
+		long key = PolyglotKey.of(board);
+
+		long index = this.lowerBound(key);
+		if (index == this.size || this.key(index) != key)
+			return 0;
+
+		int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+		int numLegalMoves = board.getLegalMoves(board.getCurrentPlayer(), legalMoves);
+
+		int count = 0;
+		for (; index < this.size && this.key(index) == key && count < moves.length; index++) {
+			int move = toMoveCode(this.move(index), legalMoves, numLegalMoves);
+			if (move == MoveCode.NONE)
+				continue;
+			moves[count] = move;
+			weights[count] = this.weight(index);
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @param board
+	 * @return A book move for the position, picked at random with the odds given by the
+	 *         weights, or MoveCode.NONE if the book has none.
+	 */
+	public int pickMove (Board board) {
+		return this.pickMove(board, ThreadLocalRandom.current());
+	}
+
+	public int pickMove (Board board, Random random) {
+		int[] moves = new int[MAX_ENTRIES];
+		int[] weights = new int[MAX_ENTRIES];
+		int count = this.getMoves(board, moves, weights);
+
+		int total = 0;
+		for (int i = 0; i < count; i++)
+			total += weights[i];
+
+		// Moves of weight 0 are only played when there is nothing else.
+		if (total == 0)
+			return count == 0 ? MoveCode.NONE : moves[random.nextInt(count)];
+
+		int pick = random.nextInt(total);
+		for (int i = 0; i < count; i++) {
+			pick -= weights[i];
+			if (pick < 0)
+				return moves[i];
+		}
+		return moves[count - 1];
+	}
+
+	@Override
+	public void close () throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * @return The index of the first entry whose key is not less than the given key, or the
+	 *         size of the book if there is none.
+	 */
+	private long lowerBound (long key) {
+		long low = 0, high = this.size;
+		while (low < high) {
+			long mid = (low + high) >>> 1;
+			if (Long.compareUnsigned(this.key(mid), key) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	private long key (long index) {
+		return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getLong(offset(index));
+	}
+
+	private int move (long index) {
+		return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getShort(offset(index) + 8) & 0xFFFF;
+	}
+
+	private int weight (long index) {
+		return this.chunks[(int) (index / ENTRIES_PER_CHUNK)].getShort(offset(index) + 10) & 0xFFFF;
+	}
+
+	private static int offset (long index) {
+		return (int) (index % ENTRIES_PER_CHUNK) * ENTRY_SIZE;
+	}
+
+	/**
+	 * Find the legal move a Polyglot move stands for.
+	 *
+	 * A Polyglot move gives the from and to squares in bits 6-11 and 0-5, each as file then
+	 * rank from the least significant bit, which matches the board's square numbering, and
+	 * the promotion type in bits 12-14. Castling is written as the king taking its own
+	 * rook.
+	 *
+	 * @return The legal move, or MoveCode.NONE if none matches.
+	 */
+	private static int toMoveCode (int bookMove, int[] legalMoves, int numLegalMoves) {
+		int to = bookMove & 0x3F;
+		int from = (bookMove >>> 6) & 0x3F;
+		int promotion = (bookMove >>> 12) & 0x7;
+
+		PieceType promotionType = promotion < PROMOTIONS.length ? PROMOTIONS[promotion] : null;
+
+		for (int i = 0; i < numLegalMoves; i++) {
+			int move = legalMoves[i];
+			if (MoveCode.from(move) != from)
+				continue;
+
+			if (MoveCode.isCastle(move)) {
+				// The king's move onto its rook's square, from e1 or e8 to h or a.
+				int rookFile = MoveCode.to(move) > from ? 7 : 0;
+				if (to == (from & ~7) + rookFile)
+					return move;
+				continue;
+			}
+
+			if (MoveCode.to(move) != to)
+				continue;
+			if (MoveCode.isPromotion(move) ? MoveCode.promotionType(move) == promotionType : promotion == 0)
+				return move;
+		}
+		return MoveCode.NONE;
+	}
+}
@@ -0,0 +1,263 @@
+package chess;
+
+import pieces.Alliance;
+
+/**
+ * Attack bitboards for each kind of piece, and the line tables used to find pins and
+ * blocks.
+ *
+ * Knight, king and pawn attacks are looked up in tables built once when the class loads.
+ * Rook and bishop attacks are looked up with fancy magic bitboards: the pieces on the
+ * squares that can block a slider are multiplied by a number chosen for its square, so
+ * that the top bits of the product index a table of every attack set the slider can have
+ * there. A lookup is one mask, one multiply, one shift and one load.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class Attacks {
+
+	// Ray directions, as the change in file and rank for one step. Opposite directions
+	// differ only in their lowest bit.
+	private static final int[] FILE_STEPS = { 0, 0, 1, -1, 1, -1, -1, 1 };
+	private static final int[] RANK_STEPS = { 1, -1, 0, 0, 1, -1, 1, -1 };
+	private static final int NORTH = 0, SOUTH = 1, EAST = 2, WEST = 3, NORTH_EAST = 4, SOUTH_WEST = 5,
+			NORTH_WEST = 6, SOUTH_EAST = 7;
+
+	// The squares from each square to the edge of the board in each direction.
+	private static final long[][] RAYS = new long[8][Bitboard.NUM_SQUARES];
+
+	private static final long[] KNIGHT_ATTACKS = new long[Bitboard.NUM_SQUARES];
+	private static final long[] KING_ATTACKS = new long[Bitboard.NUM_SQUARES];
+	private static final long[][] PAWN_ATTACKS = new long[2][Bitboard.NUM_SQUARES];
+
+	// Found by trying sparse random numbers until every set of blockers on a square maps to
+	// a table entry holding its attacks, with no two different attack sets colliding.
+	private static final long[] ROOK_MAGICS = {
+			0x0080018840015420L, 0x0540100420014002L, 0x0100110008402004L, 0x0900100100200408L,
+			0x2A00200200080410L, 0x6080040002008001L, 0x4280020000800100L, 0x0180004100002480L,
+			0x0020800232400280L, 0x0189402010004001L, 0x0008802000801008L, 0x8082001008204204L,
+			0x0022000A00201004L, 0x0804802400020080L, 0x2114001001080204L, 0x0001800500004080L,
+			0x8040208000400080L, 0x4110820022420300L, 0x0000808010002002L, 0x0000090010002100L,
+			0x0000808004000802L, 0x0002008002040080L, 0x08E0040001100208L, 0x8288060000A24C03L,
+			0x8800802080004000L, 0x8090500040002000L, 0x9020010100104020L, 0x200A001200200840L,
+			0x020C000808004080L, 0x0002000200100804L, 0x0001002100141200L, 0x0080014200209904L,
+			0x0080814001800024L, 0x8410002000404002L, 0x0220A00082803000L, 0x0000080080801000L,
+			0x8404008008080040L, 0x4006000402000810L, 0x0801020804005001L, 0x4400800040800100L,
+			0x044018C221808000L, 0x1021500320044000L, 0x3006048020120041L, 0x1270008008008010L,
+			0x2054000800808004L, 0x40C1000804010002L, 0x05800208410400B0L, 0x0640508061160004L,
+			0x202040118000A280L, 0x0020084008802080L, 0x0008204080120200L, 0x4101A30210000900L,
+			0x090500C800045100L, 0x000200E4000E8080L, 0x0030500102884400L, 0x1900404401008200L,
+			0x8010800010204109L, 0x2020108900244001L, 0x9000084011002001L, 0x1042442100C81001L,
+			0x1409000210040801L, 0x0112000811041016L, 0x197A100802008104L, 0x0928840102815422L
+	};
+
+	private static final long[] BISHOP_MAGICS = {
+			0x0440100200803280L, 0x4250100900618808L, 0x2004010425084090L, 0x840C042580A00001L,
+			0x0014242000800002L, 0x0042086208000288L, 0x0080420820088040L, 0x8029010810840402L,
+			0x4020040410040108L, 0x0020840404040832L, 0x8C201044004040A8L, 0x8000040418800204L,
+			0x4110C11041182050L, 0xC881010120100000L, 0x9210020202218401L, 0x4300048401080201L,
+			0x5140002104240080L, 0xC104001050009100L, 0x80900C8A44048220L, 0x0208000C02400A04L,
+			0x0284002A0611100DL, 0x4001000480A0010AL, 0x8004100C80841049L, 0x0000400208420800L,
+			0x2020100020024220L, 0x02080400A9210815L, 0x0000500008008012L, 0x7034080020220040L,
+			0x00490010A5004000L, 0x0000920001010080L, 0x020A285028841000L, 0x0001120003420089L,
+			0x9044022001424410L, 0x100110820008880CL, 0x1021004046080080L, 0x2200020080480082L,
+			0x2004140400001010L, 0x2000900102038084L, 0x0021190204040240L, 0x0004244200614120L,
+			0x02008248401C2000L, 0x8005010820810280L, 0x0030202030002800L, 0x0000020102412403L,
+			0x4100080104442400L, 0x000AAE1042000100L, 0x1002108111008200L, 0x0008420040400200L,
+			0x4086023005040004L, 0x0012841111100200L, 0x240004242208270AL, 0x000C081104980400L,
+			0x0020A00410440000L, 0x1800430408098400L, 0x2020C40102240000L, 0x00788200DC01000AL,
+			0x1100105110082000L, 0x0600004420A80808L, 0x00018003004110A4L, 0x1010700000208830L,
+			0x0801102091020200L, 0x4000000408105100L, 0x8000300401481620L, 0x1010042810404200L
+	};
+
+	// The squares whose pieces can block a slider on each square. The edge squares never
+	// block anything behind them, so they are left out to keep the tables small.
+	private static final long[] ROOK_MASKS = new long[Bitboard.NUM_SQUARES];
+	private static final long[] BISHOP_MASKS = new long[Bitboard.NUM_SQUARES];
+
+	private static final int[] ROOK_SHIFTS = new int[Bitboard.NUM_SQUARES];
+	private static final int[] BISHOP_SHIFTS = new int[Bitboard.NUM_SQUARES];
+
+	// Where each square's attack sets start in the shared tables.
+	private static final int[] ROOK_OFFSETS = new int[Bitboard.NUM_SQUARES];
+	private static final int[] BISHOP_OFFSETS = new int[Bitboard.NUM_SQUARES];
+
+	private static final long[] ROOK_TABLE = new long[102400];
+	private static final long[] BISHOP_TABLE = new long[5248];
+
+	private static final long[][] BETWEEN = new long[Bitboard.NUM_SQUARES][Bitboard.NUM_SQUARES];
+	private static final long[][] LINE = new long[Bitboard.NUM_SQUARES][Bitboard.NUM_SQUARES];
+
+	static {
+		int[][] knightSteps = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++) {
+			int file = Bitboard.fileOf(square), rank = Bitboard.rankOf(square);
+
+			for (int dir = 0; dir < 8; dir++) {
+				for (int f = file + FILE_STEPS[dir], r = rank + RANK_STEPS[dir]; Position.isValid(f, r); f += FILE_STEPS[dir], r += RANK_STEPS[dir])
+					RAYS[dir][square] |= Bitboard.bit(Bitboard.square(f, r));
+
+				KING_ATTACKS[square] |= step(file + FILE_STEPS[dir], rank + RANK_STEPS[dir]);
+			}
+
+			for (int[] knightStep : knightSteps)
+				KNIGHT_ATTACKS[square] |= step(file + knightStep[0], rank + knightStep[1]);
+
+			PAWN_ATTACKS[Alliance.WHITE.ordinal()][square] = step(file - 1, rank + 1) | step(file + 1, rank + 1);
+			PAWN_ATTACKS[Alliance.BLACK.ordinal()][square] = step(file - 1, rank - 1) | step(file + 1, rank - 1);
+		}
+
+		int rookOffset = 0, bishopOffset = 0;
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++) {
+			ROOK_MASKS[square] = (RAYS[NORTH][square] & ~Bitboard.RANK_8) | (RAYS[SOUTH][square] & ~Bitboard.RANK_1)
+					| (RAYS[EAST][square] & ~Bitboard.FILE_H) | (RAYS[WEST][square] & ~Bitboard.FILE_A);
+			BISHOP_MASKS[square] = (RAYS[NORTH_EAST][square] | RAYS[NORTH_WEST][square] | RAYS[SOUTH_EAST][square] | RAYS[SOUTH_WEST][square])
+					& ~(Bitboard.RANK_1 | Bitboard.RANK_8 | Bitboard.FILE_A | Bitboard.FILE_H);
+
+			ROOK_SHIFTS[square] = Bitboard.NUM_SQUARES - Bitboard.count(ROOK_MASKS[square]);
+			BISHOP_SHIFTS[square] = Bitboard.NUM_SQUARES - Bitboard.count(BISHOP_MASKS[square]);
+
+			ROOK_OFFSETS[square] = rookOffset;
+			BISHOP_OFFSETS[square] = bishopOffset;
+			rookOffset += 1 << Bitboard.count(ROOK_MASKS[square]);
+			bishopOffset += 1 << Bitboard.count(BISHOP_MASKS[square]);
+
+			// Visit every subset of the mask, and store the attacks the rays give for it.
+			long blockers = Bitboard.EMPTY;
+			do {
+				ROOK_TABLE[rookIndex(square, blockers)] = slowRook(square, blockers);
+				blockers = (blockers - ROOK_MASKS[square]) & ROOK_MASKS[square];
+			} while (blockers != Bitboard.EMPTY);
+
+			do {
+				BISHOP_TABLE[bishopIndex(square, blockers)] = slowBishop(square, blockers);
+				blockers = (blockers - BISHOP_MASKS[square]) & BISHOP_MASKS[square];
+			} while (blockers != Bitboard.EMPTY);
+		}
+
+		for (int from = 0; from < Bitboard.NUM_SQUARES; from++) {
+			for (int dir = 0; dir < 8; dir++) {
+				long line = RAYS[dir][from] | RAYS[dir ^ 1][from] | Bitboard.bit(from);
+
+				for (long ray = RAYS[dir][from]; ray != 0; ray = Bitboard.popLowest(ray)) {
+					int to = Bitboard.lowestSquare(ray);
+					BETWEEN[from][to] = RAYS[dir][from] & ~RAYS[dir][to] & ~Bitboard.bit(to);
+					LINE[from][to] = line;
+				}
+			}
+		}
+	}
+
+	private Attacks () {
+	}
+
+	/**
+	 * @return A bitboard of the given square, or an empty bitboard if it is off the board.
+	 */
+	private static long step (int file, int rank) {
+		return Position.isValid(file, rank) ? Bitboard.bit(Bitboard.square(file, rank)) : Bitboard.EMPTY;
+	}
+
+	public static long knight (int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long king (int square) {
+		return KING_ATTACKS[square];
+	}
+
+	/**
+	 * @param alliance - The alliance of the pawn.
+	 * @param square - The square of the pawn.
+	 * @return The squares a pawn of the given alliance attacks from the given square.
+	 */
+	public static long pawn (Alliance alliance, int square) {
+		return PAWN_ATTACKS[alliance.ordinal()][square];
+	}
+
+	/**
+	 * @param square - The square of the rook.
+	 * @param occupied - Every occupied square on the board.
+	 * @return The squares a rook attacks, up to and including the first piece in each direction.
+	 */
+	public static long rook (int square, long occupied) {
+		return ROOK_TABLE[rookIndex(square, occupied)];
+	}
+
+	/**
+	 * @param square - The square of the bishop.
+	 * @param occupied - Every occupied square on the board.
+	 * @return The squares a bishop attacks, up to and including the first piece in each direction.
+	 */
+	public static long bishop (int square, long occupied) {
+		return BISHOP_TABLE[bishopIndex(square, occupied)];
+	}
+
+	public static long queen (int square, long occupied) {
+		return rook(square, occupied) | bishop(square, occupied);
+	}
+
+	/**
+	 * @return The squares strictly between two squares on a shared rank, file or diagonal, or
+	 *         an empty bitboard if they do not share one.
+	 */
+	public static long between (int from, int to) {
+		return BETWEEN[from][to];
+	}
+
+	/**
+	 * @return The whole rank, file or diagonal through two squares, or an empty bitboard if
+	 *         they do not share one.
+	 */
+	public static long line (int from, int to) {
+		return LINE[from][to];
+	}
+
+	private static int rookIndex (int square, long occupied) {
+		return ROOK_OFFSETS[square] + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+	}
+
+	private static int bishopIndex (int square, long occupied) {
+		return BISHOP_OFFSETS[square] + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+	}
+
+	/**
+	 * Rook attacks found by following the rays, used to fill the magic tables.
+	 */
+	private static long slowRook (int square, long occupied) {
+		return positiveRay(NORTH, square, occupied) | negativeRay(SOUTH, square, occupied)
+				| positiveRay(EAST, square, occupied) | negativeRay(WEST, square, occupied);
+	}
+
+	/**
+	 * Bishop attacks found by following the rays, used to fill the magic tables.
+	 */
+	private static long slowBishop (int square, long occupied) {
+		return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+				| negativeRay(SOUTH_EAST, square, occupied) | negativeRay(SOUTH_WEST, square, occupied);
+	}
+
+	/**
+	 * Follow a ray whose squares have increasing indices, stopping at the first blocker.
+	 */
+	private static long positiveRay (int dir, int square, long occupied) {
+		long ray = RAYS[dir][square];
+		long blockers = ray & occupied;
+		if (blockers != 0)
+			ray ^= RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+		return ray;
+	}
+
+	/**
+	 * Follow a ray whose squares have decreasing indices, stopping at the first blocker.
+	 */
+	private static long negativeRay (int dir, int square, long occupied) {
+		long ray = RAYS[dir][square];
+		long blockers = ray & occupied;
+		if (blockers != 0)
+			ray ^= RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+		return ray;
+	}
+}
@@ -0,0 +1,109 @@
+package chess;
+
+/**
+ * Static helpers for working with bitboards.
+ *
+ * A bitboard is a long where each bit represents one square of the board. Squares are
+ * indexed from 0 (a1) to 63 (h8), going across each rank from the a-file to the h-file.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class Bitboard {
+
+	public static final int NUM_SQUARES = 64;
+
+	public static final long EMPTY = 0L;
+	public static final long FULL = ~0L;
+
+	public static final long FILE_A = 0x0101010101010101L;
+	public static final long FILE_H = FILE_A << 7;
+
+	public static final long RANK_1 = 0xFFL;
+	public static final long RANK_8 = RANK_1 << 56;
+
+	private Bitboard () {
+	}
+
+	/**
+	 * @param file - The file of the square, from 1 to 8.
+	 * @param rank - The rank of the square, from 1 to 8.
+	 * @return The square index of the given file and rank.
+	 */
+	public static int square (int file, int rank) {
+		return (rank - 1) * PieceGrid.NUM_FILES + (file - 1);
+	}
+
+	/**
+	 * @param square - A square index from 0 to 63.
+	 * @return The file of the square, from 1 to 8.
+	 */
+	public static int fileOf (int square) {
+		return (square & 7) + 1;
+	}
+
+	/**
+	 * @param square - A square index from 0 to 63.
+	 * @return The rank of the square, from 1 to 8.
+	 */
+	public static int rankOf (int square) {
+		return (square >>> 3) + 1;
+	}
+
+	/**
+	 * @param square - A square index from 0 to 63.
+	 * @return A bitboard with only the given square set.
+	 */
+	public static long bit (int square) {
+		return 1L << square;
+	}
+
+	/**
+	 * @param bitboard
+	 * @param square
+	 * @return True if the given square is set on the bitboard.
+	 */
+	public static boolean isSet (long bitboard, int square) {
+		return (bitboard & (1L << square)) != 0;
+	}
+
+	/**
+	 * @param bitboard
+	 * @return The number of squares set on the bitboard.
+	 */
+	public static int count (long bitboard) {
+		return Long.bitCount(bitboard);
+	}
+
+	/**
+	 * @param bitboard - A non-empty bitboard.
+	 * @return The lowest square index set on the bitboard.
+	 */
+	public static int lowestSquare (long bitboard) {
+		return Long.numberOfTrailingZeros(bitboard);
+	}
+
+	/**
+	 * @param bitboard
+	 * @return The bitboard with its lowest set square cleared.
+	 */
+	public static long popLowest (long bitboard) {
+		return bitboard & (bitboard - 1);
+	}
+
+	/**
+	 * @param bitboard
+	 * @return A grid showing the bitboard from white's point of view, for debugging.
+	 */
+	public static String toString (long bitboard) {
+		StringBuilder out = new StringBuilder(NUM_SQUARES * 2 + PieceGrid.NUM_RANKS);
+		for (int rank = PieceGrid.NUM_RANKS; rank >= 1; rank--) {
+			for (int file = 1; file <= PieceGrid.NUM_FILES; file++) {
+				out.append(isSet(bitboard, square(file, rank)) ? '1' : '.').append(' ');
+			}
+			if (rank > 1)
+				out.append('\n');
+		}
+		return out.toString();
+	}
+}
@@ -1,14 +1,11 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import pieces.*;
-import player.BlackPlayer;
-import player.WhitePlayer;
 
 /**
  * 
@@ -24,11 +21,43 @@ public class Board extends PieceGrid {
 	// True if it's white's turn, false if black's.
 	private boolean whiteTurn = true;
 
-	// After any pawn moves two squares, this is that pawn.
-	private Piece enPassantPawn;
+	// After any pawn moves two squares, this is the square behind that pawn, otherwise NO_SQUARE.
+	private int enPassantSquare = NO_SQUARE;
+	public static final int NO_SQUARE = -1;
+
+	// Castling rights, one bit for each side of each alliance.
+	public static final int WHITE_KINGSIDE = 1, WHITE_QUEENSIDE = 2, BLACK_KINGSIDE = 4, BLACK_QUEENSIDE = 8;
+	public static final int ALL_CASTLING_RIGHTS = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+	// The castling rights that survive a piece moving to or from each square.
+	private static final int[] CASTLING_RIGHTS_MASK = new int[Bitboard.NUM_SQUARES];
+
+	static {
+		Arrays.fill(CASTLING_RIGHTS_MASK, ALL_CASTLING_RIGHTS);
+		CASTLING_RIGHTS_MASK[Bitboard.square(5, 1)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+		CASTLING_RIGHTS_MASK[Bitboard.square(8, 1)] &= ~WHITE_KINGSIDE;
+		CASTLING_RIGHTS_MASK[Bitboard.square(1, 1)] &= ~WHITE_QUEENSIDE;
+		CASTLING_RIGHTS_MASK[Bitboard.square(5, 8)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+		CASTLING_RIGHTS_MASK[Bitboard.square(8, 8)] &= ~BLACK_KINGSIDE;
+		CASTLING_RIGHTS_MASK[Bitboard.square(1, 8)] &= ~BLACK_QUEENSIDE;
+	}
+
+	private int castlingRights;
+
+	// The number of half moves since the last capture or pawn move.
+	private int halfmoveClock;
+
+	// The number of the full move being played, starting at 1 and going up after black moves.
+	private int fullmoveNumber = 1;
+
+	// Everything makeMove overwrites that unmakeMove cannot work out from the move itself,
+	// packed into one long per move played.
+	private long[] undoStack = new long[INITIAL_UNDO_CAPACITY];
+	private int undoCount;
 
-	// True when an en passant move can be played which captures the en passant pawn.
-	private boolean enPassantPossible;
+	// The key of the board before each move on the undo stack.
+	private long[] keyHistory = new long[INITIAL_UNDO_CAPACITY];
+	private static final int INITIAL_UNDO_CAPACITY = 256;
 
 	/**
 	 * Create a new empty board.
@@ -38,12 +67,15 @@ public class Board extends PieceGrid {
 	}
 
 	/**
-	 * Create a new board with a given layout.
+	 * Create a new board from a FEN string. The string may be just the piece placement, in
+	 * which case white is to move and castling rights are given for every king and rook on
+	 * their starting squares.
 	 * 
-	 * @param layout - The FEN layout to initialize the pieces with.
+	 * @param fen - The FEN string or layout to initialize the board with.
 	 */
-	public Board (String layout) {
-		super(layout);
+	public Board (String fen) {
+		super();
+		Fen.read(this, fen);
 	}
 
 	/**
@@ -54,20 +86,300 @@ public class Board extends PieceGrid {
 	public Board (Board board) {
 		super(board);
 		this.whiteTurn = board.whiteTurn;
+		this.castlingRights = board.castlingRights;
+		this.enPassantSquare = board.enPassantSquare;
+		this.halfmoveClock = board.halfmoveClock;
+		this.fullmoveNumber = board.fullmoveNumber;
+	}
+
+	/**
+	 * A king and rook that are on their starting squares are assumed not to have moved.
+	 * 
+	 * @return The castling rights implied by the current piece layout.
+	 */
+	int initialCastlingRights () {
+		int rights = 0;
+		for (Alliance alliance : new Alliance[] {Alliance.WHITE, Alliance.BLACK}) {
+			int homeRank = alliance.homeRank();
+			int rook = PieceGrid.pieceCode(PieceType.ROOK, alliance);
+
+			if (this.getPieceCodeAt(Bitboard.square(5, homeRank)) != PieceGrid.pieceCode(PieceType.KING, alliance))
+				continue;
+			if (this.getPieceCodeAt(Bitboard.square(8, homeRank)) == rook)
+				rights |= alliance == Alliance.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+			if (this.getPieceCodeAt(Bitboard.square(1, homeRank)) == rook)
+				rights |= alliance == Alliance.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+		}
+		return rights;
+	}
+
+	/**
+	 * Move a piece, giving up any castling rights that depend on the start or end square.
+	 */
+	@Override
+	public void movePiece (Position startPos, Position endPos) {
+		super.movePiece(startPos, endPos);
+		this.setCastlingRights(this.castlingRights & CASTLING_RIGHTS_MASK[startPos.getIndex()] & CASTLING_RIGHTS_MASK[endPos.getIndex()]);
+	}
+
+	/**
+	 * 
+	 * @return The castling rights as a combination of the castling right flags.
+	 */
+	public int getCastlingRights () {
+		return this.castlingRights;
+	}
+
+	/**
+	 * 
+	 * @param castlingRights - The new castling rights as a combination of the castling right flags.
+	 */
+	public void setCastlingRights (int castlingRights) {
+		this.key ^= Zobrist.castling(this.castlingRights);
+		this.castlingRights = castlingRights & ALL_CASTLING_RIGHTS;
+		this.key ^= Zobrist.castling(this.castlingRights);
+	}
+
+	/**
+	 * 
+	 * @param alliance
+	 * @return True if the alliance has not given up the right to castle kingside.
+	 */
+	public boolean hasKingsideCastlingRight (Alliance alliance) {
+		return (this.castlingRights & (alliance == Alliance.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE)) != 0;
+	}
+
+	/**
+	 * 
+	 * @param alliance
+	 * @return True if the alliance has not given up the right to castle queenside.
+	 */
+	public boolean hasQueensideCastlingRight (Alliance alliance) {
+		return (this.castlingRights & (alliance == Alliance.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE)) != 0;
+	}
+
+	/**
+	 * Play a move on this board. The move is assumed to be legal, and can be taken back
+	 * with unmakeMove.
+	 * 
+	 * @param move - The move to play.
+	 */
+	public void makeMove (Move move) {
+		this.makeMove(move.encode());
+	}
+
+	/**
+	 * Play a move on this board. The move is assumed to be legal, and can be taken back
+	 * with unmakeMove.
+	 * 
+	 * @param move - The move packed by MoveCode.
+	 */
+	public void makeMove (int move) {
+		int start = MoveCode.from(move), dest = MoveCode.to(move);
+		int moved = MoveCode.moved(move);
+		int captured = this.getPieceCodeAt(dest);
+
+		this.pushUndo(moved, captured);
+
+		this.clearSquare(start);
+		this.clearSquare(dest);
+
+		if (MoveCode.isEnPassant(move)) {
+			this.clearSquare(enPassantCaptureSquare(dest));
+		}
+
+		PieceType promotionType = MoveCode.promotionType(move);
+		if (promotionType != null) {
+			this.putPiece(PieceGrid.pieceCode(promotionType, PieceGrid.allianceOf(moved)), dest);
+		} else {
+			this.putPiece(moved, dest);
+		}
+
+		if (MoveCode.isCastle(move)) {
+			this.moveCastlingRook(dest, true);
+		}
+
+		this.setEnPassantSquare(MoveCode.isDoublePawnPush(move) ? (start + dest) / 2 : NO_SQUARE);
+		this.setCastlingRights(this.castlingRights & CASTLING_RIGHTS_MASK[start] & CASTLING_RIGHTS_MASK[dest]);
+		this.halfmoveClock = PieceGrid.pieceTypeOf(moved) == PieceType.PAWN || captured != PieceGrid.EMPTY ? 0 : this.halfmoveClock + 1;
+		if (!this.whiteTurn)
+			this.fullmoveNumber++;
+
+		this.endTurn();
+	}
+
+	/**
+	 * Take back a move played with makeMove. Moves must be taken back in the reverse order
+	 * they were played.
+	 * 
+	 * @param move - The last move played on this board.
+	 */
+	public void unmakeMove (Move move) {
+		this.unmakeMove(move.encode());
+	}
+
+	/**
+	 * Take back a move played with makeMove. Moves must be taken back in the reverse order
+	 * they were played.
+	 * 
+	 * @param move - The last move played on this board, packed by MoveCode.
+	 */
+	public void unmakeMove (int move) {
+		if (this.undoCount == 0)
+			throw new RuntimeException("unmakeMove called with no move to take back.");
+
+		int start = MoveCode.from(move), dest = MoveCode.to(move);
+
+		long undo = this.undoStack[--this.undoCount];
+		int moved = (int) (undo & 0xF);
+		int captured = (int) ((undo >>> 4) & 0xF);
+
+		this.endTurn();
+		if (!this.whiteTurn)
+			this.fullmoveNumber--;
+		this.castlingRights = (int) ((undo >>> 8) & 0xF);
+		this.enPassantSquare = (int) ((undo >>> 12) & 0x7F) - 1;
+		this.halfmoveClock = (int) (undo >>> 20);
+
+		if (MoveCode.isCastle(move)) {
+			this.moveCastlingRook(dest, false);
+		}
+
+		this.clearSquare(dest);
+		this.putPiece(moved, start);
+		this.putPiece(captured, dest);
+
+		if (MoveCode.isEnPassant(move)) {
+			Alliance opponent = PieceGrid.allianceOf(moved).opponent();
+			this.putPiece(PieceGrid.pieceCode(PieceType.PAWN, opponent), enPassantCaptureSquare(dest));
+		}
+
+		this.key = this.keyHistory[this.undoCount];
+	}
+
+	/**
+	 * Pass the turn to the opponent without moving, as the search does to see whether a
+	 * position is good enough even if the side to move does nothing. Any en passant capture
+	 * is given up. It is taken back with unmakeNullMove.
+	 */
+	public void makeNullMove () {
+		this.pushUndo(PieceGrid.EMPTY, PieceGrid.EMPTY);
+
+		this.setEnPassantSquare(NO_SQUARE);
+		this.halfmoveClock++;
+
+		this.endTurn();
+	}
+
+	/**
+	 * Take back a null move. It must be the last move played on this board.
+	 */
+	public void unmakeNullMove () {
+		if (this.undoCount == 0)
+			throw new RuntimeException("unmakeNullMove called with no move to take back.");
+
+		long undo = this.undoStack[--this.undoCount];
+
+		this.endTurn();
+		this.enPassantSquare = (int) ((undo >>> 12) & 0x7F) - 1;
+		this.halfmoveClock = (int) (undo >>> 20);
+
+		this.key = this.keyHistory[this.undoCount];
+	}
+
+	/**
+	 * Save the state needed to take back the move being made.
+	 * 
+	 * @param moved - The piece code being moved.
+	 * @param captured - The piece code captured on the destination square, or EMPTY.
+	 */
+	private void pushUndo (int moved, int captured) {
+		if (this.undoCount == this.undoStack.length) {
+			this.undoStack = Arrays.copyOf(this.undoStack, this.undoStack.length * 2);
+			this.keyHistory = Arrays.copyOf(this.keyHistory, this.keyHistory.length * 2);
+		}
+
+		this.keyHistory[this.undoCount] = this.key;
+		this.undoStack[this.undoCount++] = moved
+				| captured << 4
+				| this.castlingRights << 8
+				| (this.enPassantSquare + 1) << 12
+				| (long) this.halfmoveClock << 20;
+	}
+
+	/**
+	 * Move the rook that goes along with a castling king.
+	 * 
+	 * @param kingDest - The square the king castles to.
+	 * @param forward - True when making the castling move, false when taking it back.
+	 */
+	private void moveCastlingRook (int kingDest, boolean forward) {
+		boolean kingside = Bitboard.fileOf(kingDest) == 7;
+		int rookStart = kingside ? kingDest + 1 : kingDest - 2;
+		int rookDest = kingside ? kingDest - 1 : kingDest + 1;
+
+		if (forward) {
+			this.putPiece(this.clearSquare(rookStart), rookDest);
+		} else {
+			this.putPiece(this.clearSquare(rookDest), rookStart);
+		}
+	}
+
+	/**
+	 * @param enPassantSquare - The square behind a pawn that just jumped.
+	 * @return The square of the pawn that is captured en passant.
+	 */
+	private static int enPassantCaptureSquare (int enPassantSquare) {
+		return Bitboard.rankOf(enPassantSquare) == Alliance.WHITE.enPassantRank() ? enPassantSquare + 8 : enPassantSquare - 8;
 	}
 
 	/**
-	 * Execute a move and return a copy of the new board.
 	 * 
-	 * @param move - The move to execute.
+	 * @return The Zobrist key of the position: its pieces, side to move, castling rights and en passant file.
+	 */
+	@Override
+	public long getKey () {
+		return this.key;
+	}
+
+	/**
 	 * 
-	 * @return new Board after move is executed.
+	 * @return The number of half moves since the last capture or pawn move.
 	 */
-	public Board makeMove (Move move) {
-		if (!move.isValid())
-			throw new RuntimeException(String.format("Invalid move processed: %s", move.toString()));
+	public int getHalfmoveClock () {
+		return this.halfmoveClock;
+	}
 
-		return move.execute();
+	/**
+	 * 
+	 * @param halfmoveClock - The number of half moves since the last capture or pawn move.
+	 */
+	void setHalfmoveClock (int halfmoveClock) {
+		this.halfmoveClock = halfmoveClock;
+	}
+
+	/**
+	 * 
+	 * @return The number of the full move being played, starting at 1.
+	 */
+	public int getFullmoveNumber () {
+		return this.fullmoveNumber;
+	}
+
+	/**
+	 * 
+	 * @param fullmoveNumber - The number of the full move being played.
+	 */
+	void setFullmoveNumber (int fullmoveNumber) {
+		this.fullmoveNumber = fullmoveNumber;
+	}
+
+	/**
+	 * 
+	 * @return The board in FEN, with all six fields.
+	 */
+	public String toFen () {
+		return Fen.write(this);
 	}
 
 	/**
@@ -101,15 +413,27 @@ public class Board extends PieceGrid {
 	 * @return An ArrayList of the legal moves for the given alliance.
 	 */
 	public ArrayList<Move> getLegalMoves (Alliance alliance) {
-		Set<Move> moves = new HashSet<Move>();
+		return MoveGenerator.generateLegalMoves(this, alliance);
+	}
 
-		for (Piece piece : this.getPiecesOfAlliance(alliance)) {
-			for (Move move : piece.calculateLegalMoves(this)) {
-				moves.add(move);
-			}
-		}
+	/**
+	 * 
+	 * @param alliance
+	 * @param moves - The buffer to write the moves into, with room for MoveGenerator.MAX_MOVES.
+	 * @return The number of legal moves for the given alliance written to the buffer.
+	 */
+	public int getLegalMoves (Alliance alliance, int[] moves) {
+		return MoveGenerator.generateLegalMoves(this, alliance, moves);
+	}
 
-		return new ArrayList<Move>(moves);
+	/**
+	 * 
+	 * @param alliance
+	 * @param moves - The buffer to write the moves into, with room for MoveGenerator.MAX_MOVES.
+	 * @return The number of legal captures and promotions for the given alliance written to the buffer.
+	 */
+	public int getTacticalMoves (Alliance alliance, int[] moves) {
+		return MoveGenerator.generateTacticalMoves(this, alliance, moves);
 	}
 
 	/**
@@ -119,7 +443,31 @@ public class Board extends PieceGrid {
 	 * @return True if the alliance has an attack on the given position.
 	 */
 	public boolean attackOnPosition (Alliance alliance, Position pos) {
-		return this.getAttackedPositions(alliance).contains(pos);
+		return this.isSquareAttacked(pos.getIndex(), alliance);
+	}
+
+	/**
+	 * Look outward from the square with each kind of piece's attack pattern, stopping at the
+	 * first one that finds a piece of that kind belonging to the attacker. The cheap, common
+	 * attackers are looked for first.
+	 * 
+	 * @param square - The square index to look at.
+	 * @param byAlliance - The alliance that may be attacking it.
+	 * @return True if any piece of the alliance attacks the square.
+	 */
+	public boolean isSquareAttacked (int square, Alliance byAlliance) {
+		if ((Attacks.pawn(byAlliance.opponent(), square) & this.getPieceBitboard(PieceType.PAWN, byAlliance)) != 0)
+			return true;
+		if ((Attacks.knight(square) & this.getPieceBitboard(PieceType.KNIGHT, byAlliance)) != 0)
+			return true;
+		if ((Attacks.king(square) & this.getPieceBitboard(PieceType.KING, byAlliance)) != 0)
+			return true;
+
+		long occupied = this.getOccupiedBitboard();
+		long queens = this.getPieceBitboard(PieceType.QUEEN, byAlliance);
+		if ((Attacks.bishop(square, occupied) & (this.getPieceBitboard(PieceType.BISHOP, byAlliance) | queens)) != 0)
+			return true;
+		return (Attacks.rook(square, occupied) & (this.getPieceBitboard(PieceType.ROOK, byAlliance) | queens)) != 0;
 	}
 
 	/**
@@ -127,41 +475,48 @@ public class Board extends PieceGrid {
 	 * @return The Position behind the en passant pawn
 	 */
 	public Position getEnPassantPosition() {
-		if (this.enPassantPawn != null)
-			return new Position (this.enPassantPawn.getFile(), this.enPassantPawn.getAlliance().enPassantRank());
+		if (this.enPassantSquare != NO_SQUARE)
+			return Position.of(this.enPassantSquare);
 		return null;
 	}
 
 	/**
 	 * 
-	 * @param pawn - The pawn to set the en passant pawn to.
+	 * @return The square index behind the en passant pawn, or NO_SQUARE.
 	 */
-	public void setEnPassantPawn (Piece pawn) {
-		this.enPassantPawn = pawn;
+	public int getEnPassantSquare () {
+		return this.enPassantSquare;
 	}
 
 	/**
 	 * 
-	 * @return The current en passant pawn.
+	 * @param pawn - The pawn to set the en passant pawn to.
 	 */
-	public Piece getEnPassantPawn () {
-		return this.enPassantPawn;
+	public void setEnPassantPawn (Piece pawn) {
+		if (pawn == null)
+			this.setEnPassantSquare(NO_SQUARE);
+		else
+			this.setEnPassantSquare(Bitboard.square(pawn.getFile(), pawn.getAlliance().enPassantRank()));
 	}
 
 	/**
 	 * 
-	 * @return True if there is an en passant move that can be performed on the board.
+	 * @param square - The square behind a pawn that just jumped, or NO_SQUARE.
 	 */
-	public boolean enPassantPossible () {
-		return this.enPassantPossible;
+	void setEnPassantSquare (int square) {
+		this.key ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(square);
+		this.enPassantSquare = square;
 	}
 
 	/**
 	 * 
-	 * @param possible - Whether or not an en passant move should be possible.
+	 * @return The current en passant pawn.
 	 */
-	public void setEnPassantPossible (boolean possible) {
-		this.enPassantPossible = possible;
+	public Piece getEnPassantPawn () {
+		if (this.enPassantSquare == NO_SQUARE)
+			return null;
+		int square = enPassantCaptureSquare(this.enPassantSquare);
+		return PieceGrid.pieceFor(this.getPieceCodeAt(square), square);
 	}
 
 
@@ -188,12 +543,12 @@ public class Board extends PieceGrid {
 	 * @return True if the given alliance is in check.
 	 */
 	public boolean inCheck (Alliance alliance) {
-		Piece playerKing = alliance == Alliance.WHITE ? this.getWhiteKing() : this.getBlackKing();
+		long king = this.getPieceBitboard(PieceType.KING, alliance);
 
-		if (playerKing == null)
+		if (king == Bitboard.EMPTY)
 			throw new RuntimeException ("Board is missing a king.");
 
-		return this.getAttackedPositions(playerKing.getOpponentAlliance()).contains(playerKing.getPosition());
+		return this.isSquareAttacked(Bitboard.lowestSquare(king), alliance.opponent());
 	}
 
 	/**
@@ -209,6 +564,7 @@ public class Board extends PieceGrid {
 	 */
 	public void endTurn() {
 		this.whiteTurn = !this.whiteTurn;
+		this.key ^= Zobrist.blackToMove();
 	}
 
 	/**
@@ -0,0 +1,293 @@
+package chess;
+
+import java.util.Arrays;
+
+import pieces.Alliance;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: piece placement, side to move,
+ * castling rights, en passant square, halfmove clock and fullmove number.
+ *
+ * The reader walks the string one character at a time and puts each piece straight onto
+ * the board, without splitting the string or building any intermediate piece array. The
+ * writer appends to a StringBuilder supplied by the caller, so a caller writing many
+ * positions can reuse one builder and create no garbage beyond the final strings.
+ *
+ * Any fields after the placement may be left off. A bare placement gives white to move,
+ * with castling rights for every king and rook still on their starting squares.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class Fen {
+
+	// Enough room for the longest FEN string.
+	public static final int MAX_LENGTH = 92;
+
+	// The piece code for each FEN piece letter, and the letter for each piece code.
+	private static final byte[] CODES = new byte[128];
+	private static final char[] LETTERS = new char[PieceGrid.NUM_PIECE_CODES];
+
+	static {
+		Arrays.fill(CODES, (byte) PieceGrid.EMPTY);
+
+		for (int code = 0; code < PieceGrid.NUM_PIECE_CODES; code++) {
+			char letter = PieceGrid.pieceTypeOf(code).toString().charAt(0);
+			if (PieceGrid.allianceOf(code) == Alliance.BLACK)
+				letter = Character.toLowerCase(letter);
+
+			LETTERS[code] = letter;
+			CODES[letter] = (byte) code;
+		}
+	}
+
+	private Fen () {
+	}
+
+	/**
+	 * Set up an empty board from a FEN string.
+	 *
+	 * @param board - A board with no pieces on it, white to move and no castling rights.
+	 * @param fen - The FEN string, or just its piece placement.
+	 */
+	static void read (Board board, String fen) {
+		int length = fen.length();
+		int i = readPlacement(board, fen, skipSpaces(fen, 0));
+
+		i = skipSpaces(fen, i);
+		if (i == length) {
+			board.setCastlingRights(board.initialCastlingRights());
+			return;
+		}
+
+		// Side to move
+		char side = fen.charAt(i++);
+		if (side == 'b')
+			board.endTurn();
+		else if (side != 'w')
+			throw invalid("Side to move must be 'w' or 'b'.");
+
+		// Castling rights
+		i = skipSpaces(fen, i);
+		int castlingRights = 0;
+		if (i < length && fen.charAt(i) == '-') {
+			i++;
+		} else {
+			for (; i < length && fen.charAt(i) != ' '; i++) {
+				switch (fen.charAt(i)) {
+				case 'K':
+					castlingRights |= Board.WHITE_KINGSIDE;
+					break;
+				case 'Q':
+					castlingRights |= Board.WHITE_QUEENSIDE;
+					break;
+				case 'k':
+					castlingRights |= Board.BLACK_KINGSIDE;
+					break;
+				case 'q':
+					castlingRights |= Board.BLACK_QUEENSIDE;
+					break;
+				default:
+					throw invalid("Invalid character in castling rights.");
+				}
+			}
+		}
+		board.setCastlingRights(castlingRights);
+
+		// En passant square
+		i = skipSpaces(fen, i);
+		if (i < length && fen.charAt(i) == '-') {
+			i++;
+		} else if (i < length) {
+			if (i + 1 >= length)
+				throw invalid("En passant square must be '-' or a square.");
+
+			int file = fen.charAt(i) - 'a' + 1, rank = fen.charAt(i + 1) - '0';
+			if (!Position.isValid(file, rank) || (rank != Alliance.WHITE.enPassantRank() && rank != Alliance.BLACK.enPassantRank()))
+				throw invalid("En passant square must be on the third or sixth rank.");
+
+			board.setEnPassantSquare(Bitboard.square(file, rank));
+			i += 2;
+		}
+
+		// Move counters
+		i = skipSpaces(fen, i);
+		if (i < length) {
+			int end = endOfNumber(fen, i);
+			board.setHalfmoveClock(parseNumber(fen, i, end));
+			i = skipSpaces(fen, end);
+		}
+		if (i < length) {
+			int end = endOfNumber(fen, i);
+			board.setFullmoveNumber(Math.max(1, parseNumber(fen, i, end)));
+			i = skipSpaces(fen, end);
+		}
+
+		if (i < length)
+			throw invalid("Unexpected text after the fullmove number.");
+	}
+
+	/**
+	 * Put the pieces of a FEN placement field onto an empty grid.
+	 *
+	 * @param grid - A grid with no pieces on it.
+	 * @param fen - The FEN string.
+	 * @param start - The index in the string the placement field starts at.
+	 * @return The index just after the placement field.
+	 */
+	static int readPlacement (PieceGrid grid, String fen, int start) {
+		int file = 1, rank = PieceGrid.NUM_RANKS;
+		int i = start;
+
+		for (; i < fen.length(); i++) {
+			char c = fen.charAt(i);
+
+			if (c == ' ') {
+				break;
+			} else if (c == '/') {
+				if (file != PieceGrid.NUM_FILES + 1)
+					throw invalid("Board layout must have 8 files per rank.");
+				if (rank == 1)
+					throw invalid("Board layout must have 8 ranks.");
+				rank--;
+				file = 1;
+			} else if ('1' <= c && c <= '8') {
+				// Digits represent empty space
+				file += c - '0';
+				if (file > PieceGrid.NUM_FILES + 1)
+					throw invalid("Board layout must have 8 files per rank.");
+			} else {
+				int code = pieceCode(c);
+				if (code == PieceGrid.EMPTY)
+					throw invalid("Invalid character in FEN layout string.");
+				if (file > PieceGrid.NUM_FILES)
+					throw invalid("Board layout must have 8 files per rank.");
+
+				grid.putPiece(code, Bitboard.square(file, rank));
+				file++;
+			}
+		}
+
+		if (rank != 1)
+			throw invalid("Board layout must have 8 ranks.");
+		if (file != PieceGrid.NUM_FILES + 1)
+			throw invalid("Board layout must have 8 files per rank.");
+
+		return i;
+	}
+
+	/**
+	 * @param board
+	 * @return The board in FEN.
+	 */
+	public static String write (Board board) {
+		return append(board, new StringBuilder(MAX_LENGTH)).toString();
+	}
+
+	/**
+	 * Write a board in FEN onto the end of a StringBuilder.
+	 *
+	 * @param board - The board to write.
+	 * @param out - The builder to append to.
+	 * @return The builder.
+	 */
+	public static StringBuilder append (Board board, StringBuilder out) {
+		appendPlacement(board, out).append(' ').append(board.isWhiteTurn() ? 'w' : 'b').append(' ');
+
+		int castlingRights = board.getCastlingRights();
+		if (castlingRights == 0)
+			out.append('-');
+		if ((castlingRights & Board.WHITE_KINGSIDE) != 0)
+			out.append('K');
+		if ((castlingRights & Board.WHITE_QUEENSIDE) != 0)
+			out.append('Q');
+		if ((castlingRights & Board.BLACK_KINGSIDE) != 0)
+			out.append('k');
+		if ((castlingRights & Board.BLACK_QUEENSIDE) != 0)
+			out.append('q');
+		out.append(' ');
+
+		int enPassantSquare = board.getEnPassantSquare();
+		if (enPassantSquare == Board.NO_SQUARE)
+			out.append('-');
+		else
+			out.append(Notation.toFileCharacter(Bitboard.fileOf(enPassantSquare))).append(Notation.toRankCharacter(Bitboard.rankOf(enPassantSquare)));
+
+		return out.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+	}
+
+	/**
+	 * Write the piece placement field of a grid onto the end of a StringBuilder.
+	 *
+	 * @param grid - The grid to write.
+	 * @param out - The builder to append to.
+	 * @return The builder.
+	 */
+	public static StringBuilder appendPlacement (PieceGrid grid, StringBuilder out) {
+		for (int rank = PieceGrid.NUM_RANKS; rank >= 1; rank--) {
+			int emptySquares = 0;
+
+			for (int file = 1; file <= PieceGrid.NUM_FILES; file++) {
+				int code = grid.getPieceCodeAt(Bitboard.square(file, rank));
+
+				if (code == PieceGrid.EMPTY) {
+					emptySquares++;
+				} else {
+					if (emptySquares > 0) {
+						out.append((char) ('0' + emptySquares));
+						emptySquares = 0;
+					}
+					out.append(LETTERS[code]);
+				}
+			}
+
+			if (emptySquares > 0)
+				out.append((char) ('0' + emptySquares));
+			if (rank > 1)
+				out.append('/');
+		}
+
+		return out;
+	}
+
+	/**
+	 * @return The piece code for a FEN piece letter, or EMPTY if it is not one.
+	 */
+	public static int pieceCode (char letter) {
+		return letter < CODES.length ? CODES[letter] : PieceGrid.EMPTY;
+	}
+
+	/**
+	 * @return The FEN letter for a piece code.
+	 */
+	public static char pieceLetter (int code) {
+		return LETTERS[code];
+	}
+
+	private static int skipSpaces (String fen, int i) {
+		while (i < fen.length() && fen.charAt(i) == ' ')
+			i++;
+		return i;
+	}
+
+	private static int endOfNumber (String fen, int i) {
+		while (i < fen.length() && fen.charAt(i) != ' ')
+			i++;
+		return i;
+	}
+
+	private static int parseNumber (String fen, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			char c = fen.charAt(i);
+			if (c < '0' || c > '9' || value > 100000)
+				throw invalid("Move counters must be whole numbers.");
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static RuntimeException invalid (String reason) {
+		return new RuntimeException("Invalid FEN used to initialize board: " + reason);
+	}
+}
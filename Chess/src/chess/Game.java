@@ -1,14 +1,16 @@
 package chess;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 import evaluators.Evaluator_1;
 import pieces.*;
 import player.ai.MoveSelector;
+import player.ai.MoveStrategy;
+import tablebase.Tablebase;
 
 // TODO:
-// Clean up moveNotation for each kind of move. (Subclass Move for more move types?)
 // Clean up code and improve efficiency where possible.
 
 /**
@@ -19,7 +21,10 @@ import player.ai.MoveSelector;
  */
 public class Game {
 
-	public static void main(String[] args) {
+	/**
+	 * @param args - Optionally, a directory of tablebases for the computer to play endings from.
+	 */
+	public static void main(String[] args) throws IOException {
 		Scanner input = new Scanner (System.in);
 //		Board board = new Board(Board.DEFAULT_START_LAYOUT);
 		Board board = new Board("k7/5Q2/8/8/8/8/8/7K");
@@ -27,41 +32,38 @@ public class Game {
 		boolean whiteIsComputer = false;
 		boolean blackIsComputer = true;
 		
-		MoveSelector engine = new MoveSelector (0, new Evaluator_1());
+		MoveStrategy engine = new MoveSelector (0, new Evaluator_1());
+		Tablebase tablebase = args.length > 0 ? new Tablebase(Paths.get(args[0])) : null;
 		
 		String in = "";
+		int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
 		
 		while (!board.gameOver()) {
 			if (board.getCurrentPlayer() == Alliance.WHITE && whiteIsComputer || 
 					board.getCurrentPlayer() == Alliance.BLACK && blackIsComputer) {
-				Move computerMove = engine.bestMove(board);
+				int tablebaseMove = tablebase == null ? MoveCode.NONE : tablebase.bestMove(board);
+				Move computerMove = tablebaseMove != MoveCode.NONE ? Move.decode(board, tablebaseMove) : engine.bestMove(board);
 				System.out.format("%s chooses to play %s.\n", board.getCurrentPlayer(), computerMove);
-				board = board.makeMove(computerMove);
+				board.makeMove(computerMove);
 				continue;
 			}
-			ArrayList<Move> legalMoves = board.getLegalMoves(board.getCurrentPlayer());
+			// The legal moves are generated once, and the move entered is looked up in them.
+			int numMoves = board.getLegalMoves(board.getCurrentPlayer(), legalMoves);
 			
 			System.out.println(board);
-//			System.out.println(legalMoves);
 			
 			System.out.print("Enter move: ");
 			
-			in = input.nextLine();
+			in = input.nextLine().trim();
 			
 			if (in.equals("0")) break;
 			
-			boolean moveMade = false;
-			for (Move move : legalMoves) {
-				if (in.equals(move.toString())) {
-					board = board.makeMove(move);
-					moveMade = true;
-					break;
-				}
-			}
-			
-			if (!moveMade)
+			try {
+				board.makeMove(San.decode(in, legalMoves, numMoves));
+			} catch (RuntimeException e) {
 				System.out.format("### INVALID MOVE ENTERED: \"%s\" ###\n", in);
 //				throw new RuntimeException("Invalid move entered: " + in);
+			}
 			System.out.println();
 		}
 		
@@ -10,9 +10,23 @@ public class Move {
 
 	private final Board board;
 
-	private Piece movedPiece;
-	private Position startPos;
-	private Position destPos;
+	// The move packed by MoveCode. Everything else about the move is decoded from it.
+	private final int code;
+
+	/**
+	 * @param board - The board the move is played on.
+	 * @param code - The move packed by MoveCode.
+	 */
+	public Move (Board board, int code) {
+		if (board == null) {
+			throw new RuntimeException("Move object was instantiated on a null board.");
+		} else if (code == MoveCode.NONE || MoveCode.moved(code) == PieceGrid.EMPTY) {
+			throw new RuntimeException("Move object was instantiated with a null piece.");
+		}
+
+		this.board = board;
+		this.code = code;
+	}
 
 	/**
 	 * @param board - The current board.
@@ -20,17 +34,17 @@ public class Move {
 	 * @param dest - The destination position of the piece.
 	 */
 	public Move (Board board, Piece moved, Position dest) {
-		this.board = board;
-		this.movedPiece = moved;
-		this.destPos = dest;
-
-		this.startPos = moved.getPosition();
+		this(board, moved, dest, null);
+	}
 
-		if (board == null) {
-			throw new RuntimeException("Move object was instantiated on a null board.");
-		} else if (moved == null || moved instanceof NoPiece) {
-			throw new RuntimeException("Move object was instantiated with a null piece.");
-		}
+	/**
+	 * @param board - The current board.
+	 * @param moved - The piece being moved.
+	 * @param dest - The destination position of the piece.
+	 * @param promotionType - The piece type a pawn promotes to, or null.
+	 */
+	protected Move (Board board, Piece moved, Position dest, PieceType promotionType) {
+		this(board, encode(board, moved, dest, promotionType));
 	}
 
 	/**
@@ -40,10 +54,6 @@ public class Move {
 	 */
 	public Move (Board board, Position start, Position dest) {
 		this(board, board.getPieceAt(start), dest);
-
-		if (this.getMovedPiece() instanceof NoPiece) {
-			throw new RuntimeException("No piece specified for Move.");
-		}
 	}
 
 	/**
@@ -67,39 +77,87 @@ public class Move {
 		this(board, Notation.toPosition(alphanumericStart), Notation.toPosition(alphanumericDest));
 	}
 
+	private static int encode (Board board, Piece moved, Position dest, PieceType promotionType) {
+		if (board == null) {
+			throw new RuntimeException("Move object was instantiated on a null board.");
+		} else if (moved == null || moved instanceof NoPiece) {
+			throw new RuntimeException("Move object was instantiated with a null piece.");
+		}
+		return MoveCode.of(board, moved.getPosition().getIndex(), dest.getIndex(), promotionType);
+	}
+
+	/**
+	 * Decode a packed move into the Move subclass for its kind.
+	 * 
+	 * @param board - The board the move is played on.
+	 * @param code - The move packed by MoveCode.
+	 * @return A Move for the packed move.
+	 */
+	public static Move decode (Board board, int code) {
+		if (MoveCode.isPromotion(code))
+			return new PawnPromotionMove(board, code);
+
+		switch (MoveCode.flags(code)) {
+		case MoveCode.KINGSIDE_CASTLE:
+			return new KingsideCastleMove(board, code);
+		case MoveCode.QUEENSIDE_CASTLE:
+			return new QueensideCastleMove(board, code);
+		case MoveCode.DOUBLE_PAWN_PUSH:
+			return new PawnJumpMove(board, code);
+		case MoveCode.EN_PASSANT:
+			return new EnPassantMove(board, code);
+		default:
+			return new Move(board, code);
+		}
+	}
+
 	/**
 	 * @return The piece being moved.
 	 */
 	public Piece getMovedPiece () {
-		return this.movedPiece;
+		return PieceGrid.pieceFor(MoveCode.moved(this.code), MoveCode.from(this.code));
 	}
 
 	/**
 	 * @return The starting position of the moving piece.
 	 */
 	public Position getStartPos () {
-		return this.startPos;
+		return Position.of(MoveCode.from(this.code));
 	}
 
 	/**
 	 * @return The destination position of the moving piece
 	 */
 	public Position getDestPos () {
-		return this.destPos;
+		return Position.of(MoveCode.to(this.code));
+	}
+
+	/**
+	 * @return The piece type a pawn promotes to with this move, or null if it is not a promotion.
+	 */
+	public PieceType getPromotionType () {
+		return MoveCode.promotionType(this.code);
+	}
+
+	/**
+	 * @return The move packed by MoveCode.
+	 */
+	public int encode () {
+		return this.code;
 	}
 
 	/**
-	 * @return True if this move is a capture move.
+	 * @return True if this move is a capture move, including en passant.
 	 */
 	public boolean isCapture () {
-		return this.board.pieceExistsAt(this.destPos);
+		return MoveCode.isCapture(this.code);
 	}
 
 	/**
 	 * @return True if this move is valid.
 	 */
 	public boolean isValid () {
-		return this.movedPiece.getLegalMoves(this.board).contains(this);
+		return this.getMovedPiece().getLegalMoves(this.board).contains(this);
 	}
 
 	/**
@@ -110,8 +168,7 @@ public class Move {
 	public Board execute () {
 		Board updatedBoard = new Board(this.board);
 
-		updatedBoard.movePiece(this.startPos, this.destPos);
-		updatedBoard.endTurn(); // Change current player after turn.
+		updatedBoard.makeMove(this.code);
 
 		return updatedBoard;
 	}
@@ -120,28 +177,40 @@ public class Move {
 	 * @return True if this move leaves the opponent in check.
 	 */
 	public boolean leavesOpponentInCheck () {
-		// TODO: Find a better way without calling execute() again
-		// Check if the piece's new attacked positions contains the opponent king
-		// position? (What about discovered checks?)
-		return this.execute().inCheck(this.movedPiece.getAlliance().opponent());
+		return this.leavesPlayerInCheck(PieceGrid.allianceOf(MoveCode.moved(this.code)).opponent());
 	}
 	
+	/**
+	 * Play the move on its board, test for check, then take it back again.
+	 * 
+	 * @param playerAlliance - The alliance to test for check.
+	 * @return True if the given alliance is in check after this move.
+	 */
 	public boolean leavesPlayerInCheck (Alliance playerAlliance) {
-		return this.execute().inCheck (playerAlliance);
+		this.board.makeMove(this.code);
+		boolean inCheck = this.board.inCheck(playerAlliance);
+		this.board.unmakeMove(this.code);
+		return inCheck;
 	}
 
 	public Board getBoard () {
 		return this.board;
 	}
 
+	/**
+	 * Two moves are equal when they make the same change to the same position.
+	 */
 	@Override
 	public boolean equals (Object obj) {
+		if (!(obj instanceof Move))
+			return false;
 		Move other = (Move) obj;
-		if (this.startPos.equals(other.startPos) && this.destPos.equals(other.destPos)
-				&& this.board.equals(other.board)) {
-			return true;
-		}
-		return false;
+		return this.code == other.code && this.board.getKey() == other.board.getKey();
+	}
+
+	@Override
+	public int hashCode () {
+		return this.code;
 	}
 
 	public String toString () {
@@ -153,37 +222,60 @@ public class Move {
 
 	public static abstract class CastleMove extends Move {
 
-		private Piece rook;
-		private Position rookStartPos;
-		private Position rookDestPos;
+		/**
+		 * @param board
+		 * @param code
+		 */
+		CastleMove (Board board, int code) {
+			super(board, code);
+		}
 
 		/**
 		 * @param board
-		 * @param moved
+		 * @param king
 		 * @param dest
+		 * @param rook - The rook that castles with the king, which is worked out from dest.
+		 * @param rookDest - The rook's destination, which is worked out from dest.
 		 */
 		public CastleMove (Board board, Piece king, Position dest, Piece rook, Position rookDest) {
 			super(board, king, dest);
-			this.rook = rook;
-			this.rookStartPos = rook.getPosition();
-			this.rookDestPos = rookDest;
+		}
+
+		private boolean isKingside () {
+			return MoveCode.flags(this.encode()) == MoveCode.KINGSIDE_CASTLE;
 		}
 
 		/**
-		 * Perform the king move first, and then move the rook.
+		 * @return The rook that castles with the king.
 		 */
-		@Override
-		public Board execute () {
-			Board updatedBoard = super.execute();
-			
-			updatedBoard.movePiece(this.rook.getPosition(), this.rookDestPos);
+		public Piece getRook () {
+			int rookStart = this.getRookStartPos().getIndex();
+			return PieceGrid.pieceFor(this.getBoard().getPieceCodeAt(rookStart), rookStart);
+		}
 
-			return updatedBoard;
+		/**
+		 * @return The starting position of the castling rook.
+		 */
+		public Position getRookStartPos () {
+			int kingDest = MoveCode.to(this.encode());
+			return Position.of(this.isKingside() ? kingDest + 1 : kingDest - 2);
+		}
+
+		/**
+		 * @return The destination position of the castling rook.
+		 */
+		public Position getRookDestPos () {
+			int kingDest = MoveCode.to(this.encode());
+			return Position.of(this.isKingside() ? kingDest - 1 : kingDest + 1);
 		}
 	}
 	
 	public static class KingsideCastleMove extends CastleMove {
 
+		KingsideCastleMove (Board board, int code) {
+			super(board, code);
+		}
+
 		/**
 		 * @param board
 		 * @param king
@@ -194,15 +286,14 @@ public class Move {
 		public KingsideCastleMove (Board board, Piece king, Position dest, Piece rook, Position rookDest) {
 			super(board, king, dest, rook, rookDest);
 		}
-		
-		@Override
-		public String toString () {
-			return "O-O";
-		}
 	}
 	
 	public static class QueensideCastleMove extends CastleMove {
 
+		QueensideCastleMove (Board board, int code) {
+			super(board, code);
+		}
+
 		/**
 		 * @param board
 		 * @param king
@@ -213,15 +304,14 @@ public class Move {
 		public QueensideCastleMove (Board board, Piece king, Position dest, Piece rook, Position rookDest) {
 			super(board, king, dest, rook, rookDest);
 		}
-		
-		@Override
-		public String toString () {
-			return "O-O-O";
-		}
 	}
 
 	public static class PawnJumpMove extends Move {
 
+		PawnJumpMove (Board board, int code) {
+			super(board, code);
+		}
+
 		/**
 		 * The Move for a pawn moving two spaces.
 		 * 
@@ -232,64 +322,42 @@ public class Move {
 		public PawnJumpMove (Board board, Piece moved, Position dest) {
 			super(board, moved, dest);
 		}
-
-		@Override
-		public Board execute() {
-			Board updatedBoard = super.execute();
-			
-			updatedBoard.setEnPassantPawn(updatedBoard.getPieceAt(this.getDestPos()));
-			
-			return updatedBoard;
-		}
 	}
 
 	public static class PawnPromotionMove extends Move {
 
-		private PieceType promotionType;
-		
+		PawnPromotionMove (Board board, int code) {
+			super(board, code);
+		}
+
 		/**
 		 * @param board
 		 * @param moved
 		 * @param dest
 		 */
 		public PawnPromotionMove (Board board, Piece moved, Position dest, PieceType promotionType) {
-			super(board, moved, dest);
-			this.promotionType = promotionType;
+			super(board, moved, dest, checkPromotionType(promotionType));
 		}
-		
-		@Override
-		public Board execute() {
-			Board updatedBoard = super.execute();
-			
+
+		private static PieceType checkPromotionType (PieceType promotionType) {
 			switch (promotionType) {
 			case KNIGHT:
-				updatedBoard.setPieceAt (this.getDestPos(), new Knight(this.getDestPos(), this.getMovedPiece().getAlliance()));
-				break;
 			case BISHOP:
-				updatedBoard.setPieceAt (this.getDestPos(), new Bishop(this.getDestPos(), this.getMovedPiece().getAlliance()));
-				break;
 			case ROOK:
-				updatedBoard.setPieceAt (this.getDestPos(), new Rook(this.getDestPos(), this.getMovedPiece().getAlliance()));
-				break;
 			case QUEEN:
-				updatedBoard.setPieceAt (this.getDestPos(), new Queen(this.getDestPos(), this.getMovedPiece().getAlliance()));
-				break;
+				return promotionType;
 			default:
 				throw new RuntimeException ("Invalid piece type for pawn promotion.");
 			}
-			
-			return updatedBoard;
-		}
-		
-		@Override
-		public String toString () {
-			return super.toString().replace("+", "") + "=" + this.promotionType + (this.leavesOpponentInCheck() ? "+" : ""); 
 		}
-		
 	}
 	
 	public static class EnPassantMove extends Move {
 
+		EnPassantMove (Board board, int code) {
+			super(board, code);
+		}
+
 		/**
 		 * @param board
 		 * @param moved
@@ -299,19 +367,5 @@ public class Move {
 			super(board, moved, dest);
 //			System.out.println(Notation.moveNotation(this));
 		}
-		
-		@Override
-		public Board execute () {
-			Board updatedBoard = super.execute();
-			
-			updatedBoard.removePieceAt(this.getBoard().getEnPassantPawn().getPosition());
-			
-			return updatedBoard;
-		}
-
-		@Override
-		public String toString () {
-			return Notation.toFileCharacter(this.getStartPos().getFile()) + "x" + super.toString();
-		}
 	}
 }
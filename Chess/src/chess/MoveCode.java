@@ -0,0 +1,190 @@
+package chess;
+
+import pieces.PieceType;
+
+/**
+ * Static helpers for moves packed into a single int, so that move lists can be kept in
+ * plain int arrays instead of allocating a Move object for every move.
+ *
+ * The low 16 bits hold the start square in bits 0-5, the destination square in bits 6-11
+ * and the promotion piece type's ordinal in bits 12-14, which is enough to tell any two
+ * moves from the same position apart. This is the part stored in the transposition table.
+ * The flags are kept in bits 16-19, the moved piece code in bits 20-23 and the captured
+ * piece code in bits 24-27, so that a move can be played and sorted without looking at
+ * the board.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class MoveCode {
+
+	// No move. Every real move has a start and destination square that differ, so is never 0.
+	public static final int NONE = 0;
+
+	// Move kinds. Captures have bit 4 set and promotions have bit 8 set.
+	public static final int QUIET = 0;
+	public static final int DOUBLE_PAWN_PUSH = 1;
+	public static final int KINGSIDE_CASTLE = 2;
+	public static final int QUEENSIDE_CASTLE = 3;
+	public static final int CAPTURE = 4;
+	public static final int EN_PASSANT = 5;
+	public static final int PROMOTION = 8;
+
+	private static final int SHORT_MASK = 0xFFFF;
+
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	private MoveCode () {
+	}
+
+	/**
+	 * @param from - The start square.
+	 * @param to - The destination square.
+	 * @param flags - The move kind, a combination of the flags above.
+	 * @param moved - The piece code of the moving piece.
+	 * @param captured - The piece code of the captured piece, or EMPTY.
+	 * @param promotionType - The piece type a pawn promotes to, or null.
+	 * @return The packed move.
+	 */
+	public static int of (int from, int to, int flags, int moved, int captured, PieceType promotionType) {
+		return from
+				| to << 6
+				| (promotionType == null ? 0 : promotionType.ordinal()) << 12
+				| flags << 16
+				| moved << 20
+				| captured << 24;
+	}
+
+	/**
+	 * Pack a move from its squares alone, working out what kind of move it is from the board
+	 * it is played on. Castling is a king moving two squares, a double push is a pawn moving
+	 * two squares and en passant is a pawn moving onto the en passant square.
+	 *
+	 * @param board - The board the move is played on.
+	 * @param from - The start square.
+	 * @param to - The destination square.
+	 * @param promotionType - The piece type a pawn promotes to, or null.
+	 * @return The packed move.
+	 */
+	public static int of (Board board, int from, int to, PieceType promotionType) {
+		int moved = board.getPieceCodeAt(from);
+		int captured = board.getPieceCodeAt(to);
+		PieceType movedType = PieceGrid.pieceTypeOf(moved);
+
+		int flags = QUIET;
+		if (movedType == PieceType.KING && to - from == 2) {
+			flags = KINGSIDE_CASTLE;
+		} else if (movedType == PieceType.KING && from - to == 2) {
+			flags = QUEENSIDE_CASTLE;
+		} else if (movedType == PieceType.PAWN && Math.abs(to - from) == 16) {
+			flags = DOUBLE_PAWN_PUSH;
+		} else if (movedType == PieceType.PAWN && to == board.getEnPassantSquare() && captured == PieceGrid.EMPTY) {
+			flags = EN_PASSANT;
+			captured = PieceGrid.pieceCode(PieceType.PAWN, PieceGrid.allianceOf(moved).opponent());
+		} else if (captured != PieceGrid.EMPTY) {
+			flags = CAPTURE;
+		}
+
+		if (promotionType != null)
+			flags |= PROMOTION;
+
+		return of(from, to, flags, moved, captured, promotionType);
+	}
+
+	public static int from (int move) {
+		return move & 0x3F;
+	}
+
+	public static int to (int move) {
+		return (move >>> 6) & 0x3F;
+	}
+
+	public static int flags (int move) {
+		return (move >>> 16) & 0xF;
+	}
+
+	/**
+	 * @return The piece code of the moving piece.
+	 */
+	public static int moved (int move) {
+		return (move >>> 20) & 0xF;
+	}
+
+	/**
+	 * @return The piece code of the captured piece, or EMPTY.
+	 */
+	public static int captured (int move) {
+		return (move >>> 24) & 0xF;
+	}
+
+	/**
+	 * @return The piece type a pawn promotes to, or null if the move is not a promotion.
+	 */
+	public static PieceType promotionType (int move) {
+		return isPromotion(move) ? PIECE_TYPES[(move >>> 12) & 0x7] : null;
+	}
+
+	/**
+	 * @return The low 16 bits of the move, which are stored in the transposition table.
+	 */
+	public static int toShort (int move) {
+		return move & SHORT_MASK;
+	}
+
+	/**
+	 * @return True if the two moves have the same squares and promotion.
+	 */
+	public static boolean sameMove (int move, int other) {
+		return ((move ^ other) & SHORT_MASK) == 0;
+	}
+
+	/**
+	 * @return True if the move captures a piece, including en passant.
+	 */
+	public static boolean isCapture (int move) {
+		return (flags(move) & CAPTURE) != 0;
+	}
+
+	public static boolean isPromotion (int move) {
+		return (flags(move) & PROMOTION) != 0;
+	}
+
+	/**
+	 * @return True if the move is neither a capture nor a promotion.
+	 */
+	public static boolean isQuiet (int move) {
+		return (flags(move) & (CAPTURE | PROMOTION)) == 0;
+	}
+
+	public static boolean isEnPassant (int move) {
+		return flags(move) == EN_PASSANT;
+	}
+
+	public static boolean isDoublePawnPush (int move) {
+		return flags(move) == DOUBLE_PAWN_PUSH;
+	}
+
+	public static boolean isCastle (int move) {
+		int flags = flags(move);
+		return flags == KINGSIDE_CASTLE || flags == QUEENSIDE_CASTLE;
+	}
+
+	/**
+	 * @return The move in coordinate notation, e.g. "e2e4" or "e7e8q".
+	 */
+	public static String toString (int move) {
+		StringBuilder notation = new StringBuilder(5);
+		appendSquare(notation, from(move));
+		appendSquare(notation, to(move));
+
+		PieceType promotionType = promotionType(move);
+		if (promotionType != null)
+			notation.append(Character.toLowerCase(promotionType.toString().charAt(0)));
+
+		return notation.toString();
+	}
+
+	private static void appendSquare (StringBuilder notation, int square) {
+		notation.append(Notation.toFileCharacter(Bitboard.fileOf(square))).append(Notation.toRankCharacter(Bitboard.rankOf(square)));
+	}
+}
@@ -0,0 +1,334 @@
+package chess;
+
+import java.util.ArrayList;
+
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * Generates legal moves straight from the board's bitboards, without playing any move to
+ * see whether it leaves the king in check.
+ *
+ * Before any move is generated, the generator works out which of the player's pieces are
+ * pinned to their king, which enemy pieces give check, and which squares the enemy attacks
+ * once the king is out of the way. A pinned piece may only move along its pin, every move
+ * out of a single check must capture or block the checking piece, and the king never
+ * steps onto an attacked square. En passant is the one move checked by looking at the
+ * board after it, since it removes two pieces from the same rank at once.
+ *
+ * Moves are written as MoveCode ints into a buffer supplied by the caller, so generating
+ * moves allocates nothing. Searches keep one buffer for each ply.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class MoveGenerator {
+
+	// The order promotions are generated in.
+	private static final PieceType[] PROMOTION_TYPES = { PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN };
+
+	// More than the most legal moves any position has.
+	public static final int MAX_MOVES = 256;
+
+	private MoveGenerator () {
+	}
+
+	/**
+	 * @param board - The board to generate moves on.
+	 * @param alliance - The alliance to generate moves for.
+	 * @return Every legal move for the alliance.
+	 */
+	public static ArrayList<Move> generateLegalMoves (Board board, Alliance alliance) {
+		return generateLegalMoves(board, alliance, Bitboard.FULL);
+	}
+
+	/**
+	 * @param board - The board to generate moves on.
+	 * @param alliance - The alliance to generate moves for.
+	 * @param fromMask - The squares to generate moves from.
+	 * @return Every legal move for the alliance that starts on one of the given squares.
+	 */
+	public static ArrayList<Move> generateLegalMoves (Board board, Alliance alliance, long fromMask) {
+		int[] buffer = new int[MAX_MOVES];
+		int count = generateLegalMoves(board, alliance, fromMask, buffer, 0);
+
+		ArrayList<Move> moves = new ArrayList<Move>(count);
+		for (int i = 0; i < count; i++)
+			moves.add(Move.decode(board, buffer[i]));
+		return moves;
+	}
+
+	/**
+	 * @param board - The board to generate moves on.
+	 * @param alliance - The alliance to generate moves for.
+	 * @param moves - The buffer to write the moves into, which needs room for MAX_MOVES.
+	 * @return The number of legal moves written to the start of the buffer.
+	 */
+	public static int generateLegalMoves (Board board, Alliance alliance, int[] moves) {
+		return generateLegalMoves(board, alliance, Bitboard.FULL, moves, 0);
+	}
+
+	/**
+	 * @param board - The board to generate moves on.
+	 * @param alliance - The alliance to generate moves for.
+	 * @param fromMask - The squares to generate moves from.
+	 * @param moves - The buffer to write the moves into.
+	 * @param count - The index in the buffer to write the first move at.
+	 * @return The index after the last move written.
+	 */
+	public static int generateLegalMoves (Board board, Alliance alliance, long fromMask, int[] moves, int count) {
+		return generate(board, alliance, fromMask, moves, count, false);
+	}
+
+	/**
+	 * Generate only the moves that change the material on the board: captures, en passant
+	 * and promotions. Quiescence search looks at nothing else.
+	 *
+	 * @param board - The board to generate moves on.
+	 * @param alliance - The alliance to generate moves for.
+	 * @param moves - The buffer to write the moves into, which needs room for MAX_MOVES.
+	 * @return The number of legal captures and promotions written to the start of the buffer.
+	 */
+	public static int generateTacticalMoves (Board board, Alliance alliance, int[] moves) {
+		return generate(board, alliance, Bitboard.FULL, moves, 0, true);
+	}
+
+	/**
+	 * @param tactical - Whether to generate only captures and promotions.
+	 */
+	private static int generate (Board board, Alliance alliance, long fromMask, int[] moves, int count, boolean tactical) {
+		Alliance opponent = alliance.opponent();
+		long ours = board.getAllianceBitboard(alliance);
+		long theirs = board.getAllianceBitboard(opponent);
+		long occupied = board.getOccupiedBitboard();
+
+		long kingBitboard = board.getPieceBitboard(PieceType.KING, alliance);
+		if (kingBitboard == Bitboard.EMPTY)
+			throw new RuntimeException("Board is missing a king.");
+		int king = Bitboard.lowestSquare(kingBitboard);
+
+		// Kings are never captured, so the enemy king is not a target.
+		long targets = ~ours & ~board.getPieceBitboard(PieceType.KING, opponent);
+		if (tactical)
+			targets &= theirs;
+
+		long checkers = attackersTo(board, king, occupied, opponent);
+
+		// The king is taken off the board, so that it cannot hide behind itself from a slider.
+		long danger = attackedSquares(board, opponent, occupied ^ kingBitboard);
+
+		if ((kingBitboard & fromMask) != 0) {
+			count = addMoves(moves, count, board, king, Attacks.king(king) & targets & ~danger);
+
+			if (checkers == Bitboard.EMPTY && !tactical)
+				count = addCastleMoves(moves, count, board, alliance, king, occupied, danger);
+		}
+
+		// Only the king can get out of a double check.
+		if (Bitboard.count(checkers) > 1)
+			return count;
+
+		long checkMask = checkers == Bitboard.EMPTY ? Bitboard.FULL : checkers | Attacks.between(king, Bitboard.lowestSquare(checkers));
+		long pinned = pinnedPieces(board, alliance, king, occupied);
+
+		long pieces = ours & ~kingBitboard & ~board.getPieceBitboard(PieceType.PAWN, alliance) & fromMask;
+		for (; pieces != 0; pieces = Bitboard.popLowest(pieces)) {
+			int from = Bitboard.lowestSquare(pieces);
+
+			long dests = attacks(PieceGrid.pieceTypeOf(board.getPieceCodeAt(from)), from, occupied) & targets & checkMask;
+			if (Bitboard.isSet(pinned, from))
+				dests &= Attacks.line(king, from);
+
+			count = addMoves(moves, count, board, from, dests);
+		}
+
+		return addPawnMoves(moves, count, board, alliance, king, targets & theirs, checkMask, pinned, fromMask, tactical);
+	}
+
+	/**
+	 * @param board - The board to look at.
+	 * @param square - The square being attacked.
+	 * @param occupied - The occupied squares sliding attacks are blocked by.
+	 * @param attacker - The alliance attacking the square.
+	 * @return The attacker's pieces that attack the square.
+	 */
+	public static long attackersTo (Board board, int square, long occupied, Alliance attacker) {
+		long queens = board.getPieceBitboard(PieceType.QUEEN, attacker);
+
+		return (Attacks.pawn(attacker.opponent(), square) & board.getPieceBitboard(PieceType.PAWN, attacker))
+				| (Attacks.knight(square) & board.getPieceBitboard(PieceType.KNIGHT, attacker))
+				| (Attacks.king(square) & board.getPieceBitboard(PieceType.KING, attacker))
+				| (Attacks.bishop(square, occupied) & (board.getPieceBitboard(PieceType.BISHOP, attacker) | queens))
+				| (Attacks.rook(square, occupied) & (board.getPieceBitboard(PieceType.ROOK, attacker) | queens));
+	}
+
+	/**
+	 * @param board - The board to look at.
+	 * @param attacker - The alliance to find the attacked squares of.
+	 * @param occupied - The occupied squares sliding attacks are blocked by.
+	 * @return Every square the attacker's pieces attack.
+	 */
+	public static long attackedSquares (Board board, Alliance attacker, long occupied) {
+		long attacked = Bitboard.EMPTY;
+
+		for (long pieces = board.getAllianceBitboard(attacker); pieces != 0; pieces = Bitboard.popLowest(pieces)) {
+			int square = Bitboard.lowestSquare(pieces);
+			PieceType type = PieceGrid.pieceTypeOf(board.getPieceCodeAt(square));
+
+			attacked |= type == PieceType.PAWN ? Attacks.pawn(attacker, square) : attacks(type, square, occupied);
+		}
+
+		return attacked;
+	}
+
+	/**
+	 * @return The squares a piece other than a pawn attacks from the given square.
+	 */
+	private static long attacks (PieceType type, int square, long occupied) {
+		switch (type) {
+		case KING:
+			return Attacks.king(square);
+		case QUEEN:
+			return Attacks.queen(square, occupied);
+		case ROOK:
+			return Attacks.rook(square, occupied);
+		case BISHOP:
+			return Attacks.bishop(square, occupied);
+		case KNIGHT:
+			return Attacks.knight(square);
+		default:
+			throw new RuntimeException("No attacks for piece type " + type + ".");
+		}
+	}
+
+	/**
+	 * A piece is pinned when it is the only piece standing between its king and an enemy
+	 * slider that moves along that line.
+	 *
+	 * @return The alliance's pieces that are pinned to its king.
+	 */
+	private static long pinnedPieces (Board board, Alliance alliance, int king, long occupied) {
+		Alliance opponent = alliance.opponent();
+		long queens = board.getPieceBitboard(PieceType.QUEEN, opponent);
+
+		long snipers = (Attacks.rook(king, Bitboard.EMPTY) & (board.getPieceBitboard(PieceType.ROOK, opponent) | queens))
+				| (Attacks.bishop(king, Bitboard.EMPTY) & (board.getPieceBitboard(PieceType.BISHOP, opponent) | queens));
+
+		long pinned = Bitboard.EMPTY;
+		for (; snipers != 0; snipers = Bitboard.popLowest(snipers)) {
+			long blockers = Attacks.between(king, Bitboard.lowestSquare(snipers)) & occupied;
+
+			if (Bitboard.count(blockers) == 1)
+				pinned |= blockers & board.getAllianceBitboard(alliance);
+		}
+
+		return pinned;
+	}
+
+	/**
+	 * Add a plain move or capture from the given square to each destination square.
+	 */
+	private static int addMoves (int[] moves, int count, Board board, int from, long dests) {
+		int moved = board.getPieceCodeAt(from);
+
+		for (; dests != 0; dests = Bitboard.popLowest(dests)) {
+			int to = Bitboard.lowestSquare(dests);
+			int captured = board.getPieceCodeAt(to);
+			moves[count++] = MoveCode.of(from, to, captured == PieceGrid.EMPTY ? MoveCode.QUIET : MoveCode.CAPTURE, moved, captured, null);
+		}
+
+		return count;
+	}
+
+	private static int addPawnMoves (int[] moves, int count, Board board, Alliance alliance, int king, long captureTargets,
+			long checkMask, long pinned, long fromMask, boolean tactical) {
+		int forward = alliance == Alliance.WHITE ? 8 : -8;
+		int promotionRank = alliance.opponent().homeRank();
+		int startingRank = alliance.pawnStartingRank();
+		int pawn = PieceGrid.pieceCode(PieceType.PAWN, alliance);
+		long occupied = board.getOccupiedBitboard();
+		int enPassantSquare = alliance == board.getCurrentPlayer() ? board.getEnPassantSquare() : Board.NO_SQUARE;
+
+		long pawns = board.getPieceBitboard(pawn) & fromMask;
+		for (; pawns != 0; pawns = Bitboard.popLowest(pawns)) {
+			int from = Bitboard.lowestSquare(pawns);
+			long allowed = Bitboard.isSet(pinned, from) ? checkMask & Attacks.line(king, from) : checkMask;
+
+			// Pushes. Of these, only promotions are tactical.
+			int to = from + forward;
+			if (!Bitboard.isSet(occupied, to)) {
+				if (Bitboard.isSet(allowed, to)) {
+					if (Bitboard.rankOf(to) == promotionRank)
+						count = addPromotions(moves, count, from, to, MoveCode.QUIET, pawn, PieceGrid.EMPTY);
+					else if (!tactical)
+						moves[count++] = MoveCode.of(from, to, MoveCode.QUIET, pawn, PieceGrid.EMPTY, null);
+				}
+
+				int jumpTo = to + forward;
+				if (!tactical && Bitboard.rankOf(from) == startingRank && !Bitboard.isSet(occupied, jumpTo) && Bitboard.isSet(allowed, jumpTo))
+					moves[count++] = MoveCode.of(from, jumpTo, MoveCode.DOUBLE_PAWN_PUSH, pawn, PieceGrid.EMPTY, null);
+			}
+
+			// Captures
+			for (long captures = Attacks.pawn(alliance, from) & captureTargets & allowed; captures != 0; captures = Bitboard.popLowest(captures)) {
+				to = Bitboard.lowestSquare(captures);
+				int captured = board.getPieceCodeAt(to);
+				if (Bitboard.rankOf(to) == promotionRank)
+					count = addPromotions(moves, count, from, to, MoveCode.CAPTURE, pawn, captured);
+				else
+					moves[count++] = MoveCode.of(from, to, MoveCode.CAPTURE, pawn, captured, null);
+			}
+
+			// En passant
+			if (enPassantSquare != Board.NO_SQUARE && Bitboard.isSet(Attacks.pawn(alliance, from), enPassantSquare)
+					&& isLegalEnPassant(board, alliance, king, from, enPassantSquare, enPassantSquare - forward)) {
+				int captured = PieceGrid.pieceCode(PieceType.PAWN, alliance.opponent());
+				moves[count++] = MoveCode.of(from, enPassantSquare, MoveCode.EN_PASSANT, pawn, captured, null);
+			}
+		}
+
+		return count;
+	}
+
+	private static int addPromotions (int[] moves, int count, int from, int to, int flags, int pawn, int captured) {
+		for (PieceType promotionType : PROMOTION_TYPES)
+			moves[count++] = MoveCode.of(from, to, flags | MoveCode.PROMOTION, pawn, captured, promotionType);
+		return count;
+	}
+
+	/**
+	 * En passant takes two pieces off the board, so pin masks cannot tell whether it exposes
+	 * the king. Instead, look for attacks on the king with the occupied squares as they
+	 * would be after the capture.
+	 */
+	private static boolean isLegalEnPassant (Board board, Alliance alliance, int king, int from, int dest, int captured) {
+		long occupied = board.getOccupiedBitboard() ^ Bitboard.bit(from) ^ Bitboard.bit(captured) | Bitboard.bit(dest);
+		return (attackersTo(board, king, occupied, alliance.opponent()) & ~Bitboard.bit(captured)) == Bitboard.EMPTY;
+	}
+
+	/**
+	 * The king must not be in check, and may not pass through or land on an attacked square.
+	 */
+	private static int addCastleMoves (int[] moves, int count, Board board, Alliance alliance, int king, long occupied, long danger) {
+		int homeRank = alliance.homeRank();
+		if (king != Bitboard.square(5, homeRank))
+			return count;
+
+		int kingCode = PieceGrid.pieceCode(PieceType.KING, alliance);
+		int rook = PieceGrid.pieceCode(PieceType.ROOK, alliance);
+
+		long path = Bitboard.bit(king + 1) | Bitboard.bit(king + 2);
+		if (board.hasKingsideCastlingRight(alliance) && board.getPieceCodeAt(king + 3) == rook
+				&& (occupied & path) == 0 && (danger & path) == 0) {
+			moves[count++] = MoveCode.of(king, king + 2, MoveCode.KINGSIDE_CASTLE, kingCode, PieceGrid.EMPTY, null);
+		}
+
+		path = Bitboard.bit(king - 1) | Bitboard.bit(king - 2);
+		if (board.hasQueensideCastlingRight(alliance) && board.getPieceCodeAt(king - 4) == rook
+				&& (occupied & (path | Bitboard.bit(king - 3))) == 0 && (danger & path) == 0) {
+			moves[count++] = MoveCode.of(king, king - 2, MoveCode.QUEENSIDE_CASTLE, kingCode, PieceGrid.EMPTY, null);
+		}
+
+		return count;
+	}
+}
@@ -1,6 +1,6 @@
 package chess;
 
-import pieces.*;
+import pieces.PieceType;
 
 /**
  * @author Borna Sadeghi
@@ -41,196 +41,69 @@ public class Notation {
 	public static Position toPosition (String alphanumeric) {
 		int file = alphanumeric.charAt(0) - '`';
 		int rank = alphanumeric.charAt(1) - '0';
-		return new Position(file, rank);
+		return Position.of(file, rank);
 	}
 
+	/**
+	 * @param grid
+	 * @return The piece placement field of the grid in FEN.
+	 */
 	public static String getLayout (PieceGrid grid) {
-		Piece[][] pieces = grid.get2dPieceArray();
-		String layout = "";
-
-		for (int y = 0; y < PieceGrid.NUM_RANKS; y++) {
-
-			int consecutiveEmptySquares = 0;
-
-			for (int x = 0; x < PieceGrid.NUM_FILES; x++) {
-				if (!grid.pieceExistsAt(Position.xToFile(x), Position.yToRank(y))) {
-					consecutiveEmptySquares++;
-				} else {
-					if (consecutiveEmptySquares > 0) {
-						layout += (char) (consecutiveEmptySquares + '0');
-						consecutiveEmptySquares = 0;
-					}
-					Piece piece = pieces[x][y];
-					switch (piece.getPieceType()) {
-					case PAWN:
-						layout += piece.isWhite() ? "P" : "p";
-						break;
-					case KNIGHT:
-						layout += piece.isWhite() ? "N" : "n";
-						break;
-					case BISHOP:
-						layout += piece.isWhite() ? "B" : "b";
-						break;
-					case ROOK:
-						layout += piece.isWhite() ? "R" : "r";
-						break;
-					case QUEEN:
-						layout += piece.isWhite() ? "Q" : "q";
-						break;
-					case KING:
-						layout += piece.isWhite() ? "K" : "k";
-						break;
-					default:
-						System.out.println("Layout generation has errors.");
-						break;
-					}
-				}
-			}
-			if (consecutiveEmptySquares > 0)
-				layout += (char) (consecutiveEmptySquares + '0');
-			if (y < PieceGrid.NUM_RANKS - 1)
-				layout += "/";
-		}
-		return layout;
+		return Fen.appendPlacement(grid, new StringBuilder(Fen.MAX_LENGTH)).toString();
 	}
 
-	public static Piece[][] to2dPieceArray (String layout) {
-		String[] ranks = layout.split("/");
-
-		Piece[][] pieces = new Piece[PieceGrid.NUM_FILES][PieceGrid.NUM_RANKS];
+	/**
+	 * Convert a move into coordinate notation: its start and destination squares, followed
+	 * by the piece a pawn promotes to (e.g. "e2e4", "e7e8q").
+	 * 
+	 * @param move
+	 * @return The coordinate notation of the move.
+	 */
+	public static String toCoordinateNotation (Move move) {
+		return MoveCode.toString(move.encode());
+	}
 
-		if (ranks.length != PieceGrid.NUM_RANKS) {
-			throw new RuntimeException(
-					"Invalid FEN layout used to initialize piece grid: Board layout must have 8 ranks.");
+	/**
+	 * Look a move in coordinate notation up in a list of legal moves.
+	 * 
+	 * @param text - The move in coordinate notation (e.g. "e2e4", "e7e8q").
+	 * @param moves - The legal moves of the position the move is played in.
+	 * @param count - The number of legal moves.
+	 * @return The legal move, as a MoveCode, or MoveCode.NONE if no legal move matches.
+	 */
+	public static int fromCoordinateNotation (CharSequence text, int[] moves, int count) {
+		if (text.length() != 4 && text.length() != 5)
+			return MoveCode.NONE;
+
+		int from = toSquare(text.charAt(0), text.charAt(1)), to = toSquare(text.charAt(2), text.charAt(3));
+		char promotion = text.length() == 5 ? Character.toLowerCase(text.charAt(4)) : ' ';
+
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			if (MoveCode.from(move) != from || MoveCode.to(move) != to)
+				continue;
+
+			PieceType promotionType = MoveCode.promotionType(move);
+			char moveLetter = promotionType == null ? ' ' : Character.toLowerCase(promotionType.toString().charAt(0));
+			if (moveLetter == promotion)
+				return move;
 		}
+		return MoveCode.NONE;
+	}
 
-		// x = file-1, y = rank-1
-		// For each rank
-		for (int y = 0; y < ranks.length; y++) {
-			String rankString = ranks[y];
-
-			// For each file
-			int x = 0;
-			for (char c : rankString.toCharArray()) {
-				Position pos = new Position(Position.xToFile(x), Position.yToRank(y));
-
-				// Digits represent empty space
-				if (Character.isDigit(c)) {
-					for (int j = 0; j < Character.getNumericValue(c); j++) {
-						pieces[x][y] = new NoPiece(pos);
-						x++;
-					}
-				} else {
-					// Letters represent pieces
-					switch (c) {
-					case 'P':
-						pieces[x][y] = new Pawn(pos, Alliance.WHITE);
-						break;
-					case 'N':
-						pieces[x][y] = new Knight(pos, Alliance.WHITE);
-						break;
-					case 'B':
-						pieces[x][y] = new Bishop(pos, Alliance.WHITE);
-						break;
-					case 'R':
-						pieces[x][y] = new Rook(pos, Alliance.WHITE);
-						break;
-					case 'Q':
-						pieces[x][y] = new Queen(pos, Alliance.WHITE);
-						break;
-					case 'K':
-						pieces[x][y] = new King(pos, Alliance.WHITE);
-						break;
-					case 'p':
-						pieces[x][y] = new Pawn(pos, Alliance.BLACK);
-						break;
-					case 'n':
-						pieces[x][y] = new Knight(pos, Alliance.BLACK);
-						break;
-					case 'b':
-						pieces[x][y] = new Bishop(pos, Alliance.BLACK);
-						break;
-					case 'r':
-						pieces[x][y] = new Rook(pos, Alliance.BLACK);
-						break;
-					case 'k':
-						pieces[x][y] = new King(pos, Alliance.BLACK);
-						break;
-					case 'q':
-						pieces[x][y] = new Queen(pos, Alliance.BLACK);
-						break;
-					default:
-						throw new RuntimeException("Invalid FEN layout used to initialize board: Invalid character in FEN layout string.");
-					}
-					x++;
-				}
-			}
-			if (x < PieceGrid.NUM_FILES) {
-				throw new RuntimeException("Invalid FEN layout used to initialize board: Board layout must have 8 files per rank.");
-			}
-		}
-		return pieces;
+	private static int toSquare (char file, char rank) {
+		if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+			return Board.NO_SQUARE;
+		return Bitboard.square(file - '`', rank - '0');
 	}
 
 	/**
-	 * Convert a move into the notation for that move.
+	 * Convert a move into standard algebraic notation (e.g. "Nbd7", "exd8=Q+", "O-O").
 	 * 
 	 * @param move
-	 * @return
+	 * @return The SAN of the move on its board.
 	 */
 	public static String moveNotation (Move move) {
-		Piece moved = move.getMovedPiece();
-		String notation = "";
-
-		if (moved.getPieceType() == PieceType.PAWN) {
-			if (move.isCapture()) {
-				notation = Notation.toFileCharacter(move.getStartPos().getFile()) + "x" + Notation.toAlphanumeric(move.getDestPos());
-			} else {
-				notation = Notation.toAlphanumeric(move.getDestPos());
-			}
-		} else {
-			
-			notation = move.getMovedPiece().toString().toUpperCase();
-			
-			Board board = move.getBoard();
-			
-			boolean specifyFile = false, specifyRank = false;
-			
-			// If any other pieces of the same type have the same legal move...
-			for (Piece piece : board.getPiecesOfAlliance(moved.getAlliance())) {
-				if (piece.getPieceType() == moved.getPieceType() && piece != moved) {
-					for (Move otherMove : piece.getLegalMoves(board)) {
-						if (otherMove.getDestPos().equals(move.getDestPos())) {
-//							System.out.format("Other piece with same move at %s\n", piece.getPosition());
-							
-							// If other piece on different file and rank, specify file.
-							// If the other piece is on different file, we can specify file.
-							// If the other piece is on the same file, we can specify rank.
-							if (piece.getFile() != moved.getFile()) {
-								specifyFile = true;
-							} else { // No need to check if rank is different. Another piece cannot occupy the same file and rank as the current one.
-//							} else if (piece.getRank() != moved.getRank()){
-								specifyRank = true;
-							}
-							
-						}
-					}
-				}
-			}
-			
-			if (specifyFile)
-				notation += Notation.toFileCharacter(move.getStartPos().getFile());
-			if (specifyRank)
-				notation += Notation.toRankCharacter(move.getStartPos().getRank());
-
-			if (move.isCapture())
-				notation += "x";
-			notation += Notation.toAlphanumeric(move.getDestPos());
-		}
-
-		if (move.leavesOpponentInCheck())
-			notation += "+";
-		
-		return notation/* + "\nNotation generator is still incomplete."*/;
+		return San.encode(move.getBoard(), move.encode());
 	}
 }
@@ -0,0 +1,143 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Perft counts and move generation for many positions at once, spread over the threads of
+ * a ForkJoinPool.
+ *
+ * A perft count splits the tree at the root and again below it, one task for each move,
+ * until the subtrees left are small enough to count on one thread. Every task plays its
+ * move on its own copy of the board, so tasks share nothing but the LongAdder their counts
+ * are added to.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class ParallelPerft {
+
+	// Subtrees this deep or shallower are counted by the task that reaches them. Deeper
+	// ones are split into a task for each move.
+	private static final int SEQUENTIAL_DEPTH = 3;
+
+	// The most positions one batch task generates moves for without splitting.
+	private static final int BATCH_SIZE = 64;
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Run on the common pool, which has a thread for each core.
+	 */
+	public ParallelPerft () {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool - The pool to run tasks on.
+	 */
+	public ParallelPerft (ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @param board - The board to count from. It is left as it was found.
+	 * @param depth - The number of half moves to look ahead.
+	 * @return The number of move sequences of the given length.
+	 */
+	public long perft (Board board, int depth) {
+		LongAdder nodes = new LongAdder();
+		this.pool.invoke(new PerftTask(new Board(board), depth, nodes));
+		return nodes.sum();
+	}
+
+	/**
+	 * Generate the legal moves of every position in a batch.
+	 *
+	 * @param fens - The positions, in FEN.
+	 * @return The legal moves of each position as MoveCode ints, in the same order as the
+	 *         positions.
+	 */
+	public List<int[]> legalMoves (List<String> fens) {
+		String[] positions = fens.toArray(new String[fens.size()]);
+		int[][] moves = new int[positions.length][];
+		this.pool.invoke(new BatchTask(positions, moves, 0, positions.length));
+		return Arrays.asList(moves);
+	}
+
+	/**
+	 * Counts the leaves below one position, either itself or by forking a task for each move.
+	 */
+	private static class PerftTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Board board;
+		private final int depth;
+		private final LongAdder nodes;
+
+		/**
+		 * @param board - A board owned by this task alone.
+		 */
+		private PerftTask (Board board, int depth, LongAdder nodes) {
+			this.board = board;
+			this.depth = depth;
+			this.nodes = nodes;
+		}
+
+		@Override
+		protected void compute () {
+			if (this.depth <= SEQUENTIAL_DEPTH) {
+				this.nodes.add(Perft.perft(this.board, this.depth));
+				return;
+			}
+
+			int[] moves = new int[MoveGenerator.MAX_MOVES];
+			int count = this.board.getLegalMoves(this.board.getCurrentPlayer(), moves);
+
+			PerftTask[] children = new PerftTask[count];
+			for (int i = 0; i < count; i++) {
+				Board child = new Board(this.board);
+				child.makeMove(moves[i]);
+				children[i] = new PerftTask(child, this.depth - 1, this.nodes);
+			}
+			invokeAll(children);
+		}
+	}
+
+	/**
+	 * Generates the moves of a range of positions, splitting it in half until it is small.
+	 */
+	private static class BatchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final String[] fens;
+		private final int[][] moves;
+		private final int from, to;
+
+		private BatchTask (String[] fens, int[][] moves, int from, int to) {
+			this.fens = fens;
+			this.moves = moves;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute () {
+			if (this.to - this.from > BATCH_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new BatchTask(this.fens, this.moves, this.from, middle), new BatchTask(this.fens, this.moves, middle, this.to));
+				return;
+			}
+
+			int[] buffer = new int[MoveGenerator.MAX_MOVES];
+			for (int i = this.from; i < this.to; i++) {
+				Board board = new Board(this.fens[i]);
+				int count = board.getLegalMoves(board.getCurrentPlayer(), buffer);
+				this.moves[i] = Arrays.copyOf(buffer, count);
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the move tree to a fixed depth, to check move generation
+ * against known results and to measure how fast it is.
+ *
+ * Usage:
+ *   Perft                          Run the standard suite, exiting with 1 if any count is wrong.
+ *   Perft perft [depth] [FEN]      Count nodes at each depth up to the given one.
+ *   Perft divide [depth] [FEN]     Count nodes below each legal move.
+ *   Perft parallel [depth] [FEN]   Count nodes at the given depth on every core.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class Perft {
+
+	/**
+	 * A position with its known node count at one depth.
+	 */
+	private static class PerftCase {
+		private final String name;
+		private final String fen;
+		private final int depth;
+		private final long nodes;
+
+		private PerftCase (String name, String fen, int depth, long nodes) {
+			this.name = name;
+			this.fen = fen;
+			this.depth = depth;
+			this.nodes = nodes;
+		}
+	}
+
+	public static final String START_FEN = Board.DEFAULT_START_LAYOUT + " w KQkq - 0 1";
+
+	private static final PerftCase[] SUITE = {
+			new PerftCase("Start position", START_FEN, 5, 4865609),
+			new PerftCase("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4, 4085603),
+			new PerftCase("Rook endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674624),
+			new PerftCase("Promotions and checks", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422333),
+			new PerftCase("Promotion with capture", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4, 2103487),
+			new PerftCase("Middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 4, 3894594),
+
+			new PerftCase("Illegal en passant, pinned on the rank", "3k4/3p4/8/K1P4r/8/8/8/8 b - - 0 1", 6, 1134888),
+			new PerftCase("Illegal en passant, pinned on the diagonal", "8/8/4k3/8/2p5/8/B2P2K1/8 w - - 0 1", 6, 1015133),
+			new PerftCase("En passant gives check", "8/8/1k6/2b5/2pP4/8/5K2/8 b - d3 0 1", 6, 1440467),
+			new PerftCase("Short castling gives check", "5k2/8/8/8/8/8/8/4K2R w K - 0 1", 6, 661072),
+			new PerftCase("Long castling gives check", "3k4/8/8/8/8/8/8/R3K3 w Q - 0 1", 6, 803711),
+			new PerftCase("Castling rights", "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1", 4, 1274206),
+			new PerftCase("Castling prevented", "r3k2r/8/3Q4/8/8/5q2/8/R3K2R b KQkq - 0 1", 4, 1720476),
+			new PerftCase("Promote out of check", "2K2r2/4P3/8/8/8/8/8/3k4 w - - 0 1", 6, 3821001),
+			new PerftCase("Discovered check", "8/8/1P2K3/8/2n5/1q6/8/5k2 b - - 0 1", 5, 1004658),
+			new PerftCase("Promote to give check", "4k3/1P6/8/8/8/8/K7/8 w - - 0 1", 6, 217342),
+			new PerftCase("Underpromote to check", "8/P1k5/K7/8/8/8/8/8 w - - 0 1", 6, 92683),
+			new PerftCase("Self stalemate", "K1k5/8/P7/8/8/8/8/8 w - - 0 1", 6, 2217),
+			new PerftCase("Stalemate and checkmate", "8/k1P5/8/1K6/8/8/8/8 w - - 0 1", 7, 567584),
+			new PerftCase("Double check", "8/8/2k5/5q2/5n2/8/5K2/8 b - - 0 1", 4, 23527),
+	};
+
+	public static void main (String[] args) {
+		if (args.length == 0) {
+			System.exit(runSuite() ? 0 : 1);
+		}
+
+		int depth = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		Board board = new Board(args.length > 2 ? join(args, 2) : START_FEN);
+
+		if (args[0].equals("divide")) {
+			long start = System.nanoTime();
+			long total = 0;
+			for (Map.Entry<String, Long> entry : divide(board, depth).entrySet()) {
+				System.out.format("%s: %d\n", entry.getKey(), entry.getValue());
+				total += entry.getValue();
+			}
+			printTotal(total, System.nanoTime() - start);
+		} else if (args[0].equals("perft")) {
+			for (int d = 1; d <= depth; d++) {
+				long start = System.nanoTime();
+				long nodes = perft(board, d);
+				System.out.format("Depth %d: ", d);
+				printTotal(nodes, System.nanoTime() - start);
+			}
+		} else if (args[0].equals("parallel")) {
+			long start = System.nanoTime();
+			long nodes = new ParallelPerft().perft(board, depth);
+			System.out.format("Depth %d: ", depth);
+			printTotal(nodes, System.nanoTime() - start);
+		} else {
+			throw new RuntimeException("Unknown perft command: " + args[0]);
+		}
+	}
+
+	/**
+	 * @param board - The board to count from. It is left as it was found.
+	 * @param depth - The number of half moves to look ahead.
+	 * @return The number of move sequences of the given length.
+	 */
+	public static long perft (Board board, int depth) {
+		return perft(board, depth, new int[Math.max(depth, 1)][MoveGenerator.MAX_MOVES]);
+	}
+
+	/**
+	 * @param moveBuffers - One move buffer for each remaining ply.
+	 */
+	private static long perft (Board board, int depth, int[][] moveBuffers) {
+		if (depth == 0)
+			return 1;
+
+		int[] moves = moveBuffers[depth - 1];
+		int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+
+		// Every legal move is one leaf, so there is no need to play them.
+		if (depth == 1)
+			return count;
+
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			nodes += perft(board, depth - 1, moveBuffers);
+			board.unmakeMove(moves[i]);
+		}
+		return nodes;
+	}
+
+	/**
+	 * @param board - The board to count from. It is left as it was found.
+	 * @param depth - The number of half moves to look ahead, including the root move.
+	 * @return The perft count below each legal move, keyed by the move in coordinate notation.
+	 */
+	public static Map<String, Long> divide (Board board, int depth) {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+
+		for (Move move : board.getLegalMoves(board.getCurrentPlayer())) {
+			board.makeMove(move);
+			counts.put(Notation.toCoordinateNotation(move), perft(board, depth - 1));
+			board.unmakeMove(move);
+		}
+
+		return counts;
+	}
+
+	/**
+	 * Run every position in the suite and print its count, time and nodes per second.
+	 *
+	 * @return True if every count matched.
+	 */
+	public static boolean runSuite () {
+		boolean passed = true;
+		long totalNodes = 0, totalNanos = 0;
+
+		for (PerftCase perftCase : SUITE) {
+			Board board = new Board(perftCase.fen);
+
+			long start = System.nanoTime();
+			long nodes = perft(board, perftCase.depth);
+			long nanos = System.nanoTime() - start;
+
+			boolean correct = nodes == perftCase.nodes;
+			passed &= correct;
+			totalNodes += nodes;
+			totalNanos += nanos;
+
+			System.out.format("%-44s depth %d %12d %10.0f nodes/s  %s\n", perftCase.name, perftCase.depth, nodes,
+					nodes / (nanos / 1e9), correct ? "ok" : "FAILED, expected " + perftCase.nodes);
+		}
+
+		System.out.format("%s: ", passed ? "All counts correct" : "Some counts are wrong");
+		printTotal(totalNodes, totalNanos);
+
+		return passed;
+	}
+
+	private static void printTotal (long nodes, long nanos) {
+		System.out.format("%d nodes in %.0f ms, %.0f nodes/s\n", nodes, nanos / 1e6, nodes / (nanos / 1e9));
+	}
+
+	private static String join (String[] words, int from) {
+		StringBuilder joined = new StringBuilder();
+		for (int i = from; i < words.length; i++)
+			joined.append(i > from ? " " : "").append(words[i]);
+		return joined.toString();
+	}
+}
@@ -1,12 +1,19 @@
 package chess;
 
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 import pieces.*;
 
 /**
+ * A grid of pieces backed by bitboards.
+ *
+ * Every piece type of each alliance has its own bitboard, and the occupancy of each
+ * alliance and of the whole board is kept alongside them. A mailbox of piece codes is
+ * kept in sync so the piece on a square can be found without scanning every bitboard.
+ * The Piece objects handed out by the grid are shared, immutable instances, so copying
+ * a grid only copies primitive arrays.
+ *
  * @author Borna Sadeghi
  * @version Jul 16, 2019
  */
@@ -14,240 +21,226 @@ public class PieceGrid {
 
 	public static final int NUM_FILES = 8;
 	public static final int NUM_RANKS = 8;
-	private Piece[][] pieces = new Piece[NUM_FILES][NUM_RANKS];
 
-	private ArrayList<Piece> whitePieces = new ArrayList<Piece>(), blackPieces = new ArrayList<Piece>();
+	// The number of piece types per alliance, excluding NO_PIECE.
+	public static final int NUM_PIECE_TYPES = 6;
 
-	private Piece whiteKing, blackKing;
+	// Piece codes are alliance * NUM_PIECE_TYPES + piece type, with EMPTY for no piece.
+	public static final int NUM_PIECE_CODES = 2 * NUM_PIECE_TYPES;
+	public static final int EMPTY = NUM_PIECE_CODES;
 
-	/**
-	 * Initialize an empty PieceGrid full of NoPieces.
-	 */
-	public PieceGrid () {
-		for (int y = 0; y < NUM_RANKS; y++) {
-			for (int x = 0; x < NUM_FILES; x++) {
-				this.pieces[x][y] = new NoPiece(Position.xToFile(x), Position.yToRank(y));
-			}
-		}
-	}
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+	private static final Alliance[] ALLIANCES = Alliance.values();
 
-	/**
-	 * Initialize a grid of pieces with a given FEN layout.
-	 * 
-	 * @param layout - The FEN layout to initialize the pieces with.
-	 */
-	public PieceGrid (String layout) {
-		String[] ranks = layout.split("/");
-		if (ranks.length != PieceGrid.NUM_RANKS) {
-			throw new RuntimeException(
-					"Invalid FEN layout used to initialize piece grid: Board layout must have 8 ranks.");
-		}
+	// The shared Piece instance for every piece code on every square.
+	private static final Piece[][] PIECES = new Piece[NUM_PIECE_CODES + 1][Bitboard.NUM_SQUARES];
 
-		// x = file-1, y = rank-1
-		// For each rank
-		for (int y = 0; y < ranks.length; y++) {
-			String rankString = ranks[y];
-
-			// For each file
-			int x = 0;
-			for (char c : rankString.toCharArray()) {
-				Position pos = new Position(Position.xToFile(x), Position.yToRank(y));
-
-				// Digits represent empty space
-				if (Character.isDigit(c)) {
-					for (int j = 0; j < Character.getNumericValue(c); j++) {
-						this.pieces[x][y] = new NoPiece(pos);
-						x++;
-					}
-				} else {
-					// Letters represent pieces
-					switch (c) {
-					case 'P':
-						this.pieces[x][y] = new Pawn(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						break;
-					case 'N':
-						this.pieces[x][y] = new Knight(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						break;
-					case 'B':
-						this.pieces[x][y] = new Bishop(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						break;
-					case 'R':
-						this.pieces[x][y] = new Rook(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						break;
-					case 'Q':
-						this.pieces[x][y] = new Queen(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						break;
-					case 'K':
-						this.pieces[x][y] = new King(pos, Alliance.WHITE);
-						this.whitePieces.add(this.pieces[x][y]);
-						this.whiteKing = this.pieces[x][y];
-						break;
-					case 'p':
-						this.pieces[x][y] = new Pawn(pos, Alliance.BLACK);
-						this.blackPieces.add(this.pieces[x][y]);
-						break;
-					case 'n':
-						this.pieces[x][y] = new Knight(pos, Alliance.BLACK);
-						this.blackPieces.add(this.pieces[x][y]);
-						break;
-					case 'b':
-						this.pieces[x][y] = new Bishop(pos, Alliance.BLACK);
-						this.blackPieces.add(this.pieces[x][y]);
-						break;
-					case 'r':
-						this.pieces[x][y] = new Rook(pos, Alliance.BLACK);
-						this.blackPieces.add(this.pieces[x][y]);
-						break;
-					case 'k':
-						this.pieces[x][y] = new King(pos, Alliance.BLACK);
-						this.blackKing = this.pieces[x][y];
-						break;
-					case 'q':
-						this.pieces[x][y] = new Queen(pos, Alliance.BLACK);
-						this.blackPieces.add(this.pieces[x][y]);
-						break;
-					default:
-						throw new RuntimeException(
-								"Invalid FEN layout used to initialize board: Invalid character in FEN layout string.");
-					}
-					x++;
-				}
-			}
-			if (x < NUM_FILES) {
-				throw new RuntimeException(
-						"Invalid FEN layout used to initialize board: Board layout must have 8 files per rank.");
-			}
-		}
-	}
+	static {
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++) {
+			Position pos = Position.of(square);
 
-	/**
-	 * Initialize a PieceGrid using a board to copy.
-	 * 
-	 * @param board - The board to copy the piece layout from.
-	 */
-	public PieceGrid (Board board) {
-		// TODO: This method of copying the board (string layout) is slow. try a more
-		// direct method.
-		// Here's a better method: just copy the 2D Piece array instead. The more naive
-		// method I was initially avoiding.
-		for (int x = 0; x < NUM_FILES; x++) {
-			for (int y = 0; y < NUM_RANKS; y++) {
-				Piece pieceToCopy = board.getPieceAt(Position.xToFile(x), Position.yToRank(y));
+			for (int code = 0; code < NUM_PIECE_CODES; code++) {
+				Alliance alliance = allianceOf(code);
 
-				switch (pieceToCopy.getPieceType()) {
-				case PAWN:
-					this.pieces[x][y] = new Pawn(pieceToCopy);
-					break;
-				case KNIGHT:
-					this.pieces[x][y] = new Knight(pieceToCopy);
+				switch (pieceTypeOf(code)) {
+				case KING:
+					PIECES[code][square] = new King(pos, alliance);
 					break;
-				case BISHOP:
-					this.pieces[x][y] = new Bishop(pieceToCopy);
+				case QUEEN:
+					PIECES[code][square] = new Queen(pos, alliance);
 					break;
 				case ROOK:
-					this.pieces[x][y] = new Rook(pieceToCopy);
+					PIECES[code][square] = new Rook(pos, alliance);
 					break;
-				case QUEEN:
-					this.pieces[x][y] = new Queen(pieceToCopy);
+				case BISHOP:
+					PIECES[code][square] = new Bishop(pos, alliance);
 					break;
-				case KING:
-					this.pieces[x][y] = new King(pieceToCopy);
-					if (this.pieces[x][y].isWhite())
-						this.whiteKing = this.pieces[x][y];
-					else
-						this.blackKing = this.pieces[x][y];
+				case KNIGHT:
+					PIECES[code][square] = new Knight(pos, alliance);
 					break;
-				case NO_PIECE:
-					this.pieces[x][y] = new NoPiece(pieceToCopy);
+				case PAWN:
+					PIECES[code][square] = new Pawn(pos, alliance);
+					break;
+				default:
 					break;
 				}
-
-				if (pieceToCopy.isWhite())
-					this.whitePieces.add(this.pieces[x][y]);
-				else if (pieceToCopy.isBlack())
-					this.blackPieces.add(this.pieces[x][y]);
 			}
+			PIECES[EMPTY][square] = new NoPiece(pos);
 		}
+	}
 
+	private long[] pieceBitboards = new long[NUM_PIECE_CODES];
+	private long[] allianceBitboards = new long[2];
+	private long occupied;
+
+	private byte[] squares = new byte[Bitboard.NUM_SQUARES];
+
+	// The Zobrist key of the pieces on the grid. Board mixes the rest of the position into it.
+	protected long key;
+
+	// Running totals of PieceSquareTables values for each alliance.
+	private int[] material = new int[2];
+	private int[] pieceSquareScores = new int[2];
+	private int[] taperedScores = new int[2];
+	private int phase;
+
+	/**
+	 * Initialize an empty PieceGrid.
+	 */
+	public PieceGrid () {
+		Arrays.fill(this.squares, (byte) EMPTY);
+	}
+
+	/**
+	 * Initialize a grid of pieces with a given FEN layout.
+	 *
+	 * @param layout - The FEN layout to initialize the pieces with.
+	 */
+	public PieceGrid (String layout) {
+		this();
+		Fen.readPlacement(this, layout, 0);
+	}
+
+	/**
+	 * Initialize a PieceGrid as a copy of another grid.
+	 *
+	 * @param grid - The grid to copy the piece layout from.
+	 */
+	public PieceGrid (PieceGrid grid) {
+		this.pieceBitboards = grid.pieceBitboards.clone();
+		this.allianceBitboards = grid.allianceBitboards.clone();
+		this.occupied = grid.occupied;
+		this.squares = grid.squares.clone();
+		this.key = grid.key;
+		this.material = grid.material.clone();
+		this.pieceSquareScores = grid.pieceSquareScores.clone();
+		this.taperedScores = grid.taperedScores.clone();
+		this.phase = grid.phase;
 	}
 
 	/**
 	 * Initialize a PieceGrid with a 2D piece array.
-	 * 
+	 *
 	 * @param grid
 	 */
 	public PieceGrid (Piece[][] grid) {
-		this.pieces = grid;
+		this();
+		this.setPieces(grid);
 	}
 
-//	/**
-//	 * @param alliance
-//	 * @return An ArrayList containing all of the alliance's active pieces.
-//	 */
-//	public ArrayList<Piece> getPiecesOfAlliance (Alliance alliance) {
-//		return alliance == Alliance.WHITE ? this.whitePieces : this.blackPieces;
-//	}
+	/**
+	 * @param type - The type of piece.
+	 * @param alliance - The alliance of the piece.
+	 * @return The piece code for the given type and alliance, or EMPTY for no piece.
+	 */
+	public static int pieceCode (PieceType type, Alliance alliance) {
+		if (type == PieceType.NO_PIECE || alliance == Alliance.NO_ALLIANCE)
+			return EMPTY;
+		return alliance.ordinal() * NUM_PIECE_TYPES + type.ordinal();
+	}
+
+	/**
+	 * @param code - A piece code.
+	 * @return The type of piece the code represents.
+	 */
+	public static PieceType pieceTypeOf (int code) {
+		return code == EMPTY ? PieceType.NO_PIECE : PIECE_TYPES[code % NUM_PIECE_TYPES];
+	}
+
+	/**
+	 * @param code - A piece code.
+	 * @return The alliance of the piece the code represents.
+	 */
+	public static Alliance allianceOf (int code) {
+		return code == EMPTY ? Alliance.NO_ALLIANCE : ALLIANCES[code / NUM_PIECE_TYPES];
+	}
 
-	 /**
+	/**
+	 * @param code - A piece code.
+	 * @param square - A square index.
+	 * @return The shared Piece instance for the piece code on the square.
+	 */
+	public static Piece pieceFor (int code, int square) {
+		return PIECES[code][square];
+	}
+
+	/**
 	 * @param alliance
 	 * @return An ArrayList containing all of the alliance's active pieces.
 	 */
-	 public ArrayList<Piece> getPiecesOfAlliance (Alliance alliance) {
-	 ArrayList<Piece> piecesOfAlliance = new ArrayList<Piece>();
-	
-	 for (int x = 0; x < NUM_FILES; x++) {
-	 for (int y = 0; y < NUM_RANKS; y++) {
-	 if (pieces[x][y].getAlliance() == alliance)
-	 piecesOfAlliance.add(pieces[x][y]);
-	 }
-	 }
-	
-	 return piecesOfAlliance;
-	 }
+	public ArrayList<Piece> getPiecesOfAlliance (Alliance alliance) {
+		ArrayList<Piece> piecesOfAlliance = new ArrayList<Piece>();
+
+		if (alliance == Alliance.NO_ALLIANCE)
+			return piecesOfAlliance;
+
+		for (long bb = this.allianceBitboards[alliance.ordinal()]; bb != 0; bb = Bitboard.popLowest(bb)) {
+			int square = Bitboard.lowestSquare(bb);
+			piecesOfAlliance.add(PIECES[this.squares[square]][square]);
+		}
+
+		return piecesOfAlliance;
+	}
 
 	/**
-	 * @return The 2D piece array representing this PieceGrid.
+	 * @return A new 2D piece array holding the pieces of this PieceGrid.
 	 */
 	public Piece[][] get2dPieceArray () {
-		return this.pieces;
+		Piece[][] pieces = new Piece[NUM_FILES][NUM_RANKS];
+
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++) {
+			Piece piece = PIECES[this.squares[square]][square];
+			pieces[piece.getPosition().getX()][piece.getPosition().getY()] = piece;
+		}
+
+		return pieces;
 	}
 
 	/**
 	 * @param pieces - The new 2D piece array.
 	 */
 	public void setPieces (Piece[][] pieces) {
-		this.pieces = pieces;
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++)
+			this.clearSquare(square);
+
+		for (int x = 0; x < NUM_FILES; x++) {
+			for (int y = 0; y < NUM_RANKS; y++) {
+				if (pieces[x][y] != null)
+					this.setPieceAt(Position.xToFile(x), Position.yToRank(y), pieces[x][y]);
+			}
+		}
 	}
 
 	/**
 	 * Set the given piece down at the given position on the grid.
-	 * 
+	 *
 	 * @param pos - The position to put the piece on.
 	 * @param piece - The given piece.
 	 */
 	public void setPieceAt (Position pos, Piece piece) {
-		this.pieces[pos.getX()][pos.getY()] = piece;
+		int square = pos.getIndex();
+
+		this.clearSquare(square);
+		this.putPiece(pieceCode(piece.getPieceType(), piece.getAlliance()), square);
 	}
 
 	/**
 	 * Set the given piece down at the given position on the grid.
-	 * 
+	 *
 	 * @param file - The file to place the piece on.
 	 * @param rank - The rank to place the piece on.
 	 * @param piece - The given piece.
 	 */
 	public void setPieceAt (int file, int rank, Piece piece) {
-		this.pieces[Position.fileToX(file)][Position.rankToY(rank)] = piece;
+		int square = Bitboard.square(file, rank);
+
+		this.clearSquare(square);
+		this.putPiece(pieceCode(piece.getPieceType(), piece.getAlliance()), square);
 	}
 
 	/**
 	 * Set the given piece down at the given position on the grid.
-	 * 
+	 *
 	 * @param alphanumeric - The alphanumeric representation of the position to put
 	 *            the piece on.
 	 * @param piece - The given piece.
@@ -258,18 +251,17 @@ public class PieceGrid {
 
 	/**
 	 * Move a piece from one place on the board to another.
-	 * 
+	 *
 	 * @param startPos - The current position of the piece to move.
 	 * @param endPos - The position to move the piece to.
 	 */
 	public void movePiece (Position startPos, Position endPos) {
-		Piece moved = this.getPieceAt(startPos);
-
-		moved.setPosition(endPos);
-		this.setPieceAt(endPos, moved);
-		this.removePieceAt(startPos);
+		int start = startPos.getIndex(), end = endPos.getIndex();
+		int code = this.squares[start];
 
-		moved.setHasMoved();
+		this.clearSquare(start);
+		this.clearSquare(end);
+		this.putPiece(code, end);
 	}
 
 	/**
@@ -279,7 +271,8 @@ public class PieceGrid {
 	public Piece getPieceAt (Position pos) {
 		if (!Position.isValid(pos))
 			throw new RuntimeException("getPieceAt called with invalid position.");
-		return this.pieces[pos.getX()][pos.getY()];
+		int square = pos.getIndex();
+		return PIECES[this.squares[square]][square];
 	}
 
 	/**
@@ -291,7 +284,8 @@ public class PieceGrid {
 		if (!Position.isValid(file, rank))
 			throw new RuntimeException(
 					String.format("getPieceAt called with invalid position: file %d, rank %d", file, rank));
-		return this.pieces[Position.fileToX(file)][Position.rankToY(rank)];
+		int square = Bitboard.square(file, rank);
+		return PIECES[this.squares[square]][square];
 	}
 
 	/**
@@ -308,7 +302,9 @@ public class PieceGrid {
 	 * @return True if there is a piece at the given position.
 	 */
 	public boolean pieceExistsAt (Position pos) {
-		return !(this.getPieceAt(pos) instanceof NoPiece);
+		if (!Position.isValid(pos))
+			throw new RuntimeException("pieceExistsAt called with invalid position.");
+		return Bitboard.isSet(this.occupied, pos.getIndex());
 	}
 
 	/**
@@ -316,26 +312,39 @@ public class PieceGrid {
 	 * @return True if there is a piece at pos.
 	 */
 	public boolean pieceExistsAt (int file, int rank) {
-		return !(this.getPieceAt(file, rank) instanceof NoPiece);
+		if (!Position.isValid(file, rank))
+			throw new RuntimeException(
+					String.format("pieceExistsAt called with invalid position: file %d, rank %d", file, rank));
+		return Bitboard.isSet(this.occupied, Bitboard.square(file, rank));
 	}
 
 	/**
 	 * @return The white player's king.
 	 */
 	public Piece getWhiteKing () {
-		return this.whiteKing;
+		return this.getKing(Alliance.WHITE);
 	}
 
 	/**
 	 * @return The black player's king.
 	 */
 	public Piece getBlackKing () {
-		return this.blackKing;
+		return this.getKing(Alliance.BLACK);
+	}
+
+	/**
+	 * @param alliance
+	 * @return The king of the given alliance, or null if it has none.
+	 */
+	private Piece getKing (Alliance alliance) {
+		int code = pieceCode(PieceType.KING, alliance);
+		long kings = this.pieceBitboards[code];
+		return kings == 0 ? null : PIECES[code][Bitboard.lowestSquare(kings)];
 	}
 
 	/**
 	 * Remove a Piece object from the piece grid.
-	 * 
+	 *
 	 * @param piece - The piece to remove.
 	 */
 	public void removePiece (Piece piece) {
@@ -344,33 +353,161 @@ public class PieceGrid {
 
 	/**
 	 * Remove a piece at a certain position from the piece grid.
-	 * 
+	 *
 	 * @param pos - The position to delete a piece at.
 	 */
 	public void removePieceAt (Position pos) {
-		this.setPieceAt(pos, new NoPiece(pos));
+		this.clearSquare(pos.getIndex());
 	}
 
 	/**
 	 * Remove a piece at a certain position from the piece grid.
-	 * 
+	 *
 	 * @param file - The file to delete a piece at.
 	 * @param rank - The rank to delete a piece at.
 	 */
 	public void removePieceAt (int file, int rank) {
-		this.setPieceAt(file, rank, new NoPiece(file, rank));
+		this.clearSquare(Bitboard.square(file, rank));
+	}
+
+	/**
+	 * @param code - A piece code.
+	 * @return The bitboard of the squares holding the given piece code.
+	 */
+	public long getPieceBitboard (int code) {
+		return this.pieceBitboards[code];
+	}
+
+	/**
+	 * @param type
+	 * @param alliance
+	 * @return The bitboard of the squares holding pieces of the given type and alliance.
+	 */
+	public long getPieceBitboard (PieceType type, Alliance alliance) {
+		return this.pieceBitboards[pieceCode(type, alliance)];
+	}
+
+	/**
+	 * @param alliance
+	 * @return The bitboard of the squares occupied by the given alliance.
+	 */
+	public long getAllianceBitboard (Alliance alliance) {
+		return this.allianceBitboards[alliance.ordinal()];
+	}
+
+	/**
+	 * @return The bitboard of every occupied square.
+	 */
+	public long getOccupiedBitboard () {
+		return this.occupied;
+	}
+
+	/**
+	 * @return The Zobrist key of this grid.
+	 */
+	public long getKey () {
+		return this.key;
+	}
+
+	/**
+	 * @param alliance - White or black.
+	 * @return The total material value of the alliance's pieces, not counting the king.
+	 */
+	public int getMaterial (Alliance alliance) {
+		return this.material[alliance.ordinal()];
+	}
+
+	/**
+	 * @param alliance - White or black.
+	 * @return The total piece-square bonus of the alliance's pieces.
+	 */
+	public int getPieceSquareScore (Alliance alliance) {
+		return this.pieceSquareScores[alliance.ordinal()];
+	}
+
+	/**
+	 * @param alliance - White or black.
+	 * @return The packed TaperedScore of the alliance's pieces, including their material.
+	 */
+	public int getTaperedScore (Alliance alliance) {
+		return this.taperedScores[alliance.ordinal()];
+	}
+
+	/**
+	 * @return The game phase of the pieces on the grid, which may be above
+	 *         TaperedScore.MAX_PHASE after promotions.
+	 */
+	public int getGamePhase () {
+		return this.phase;
+	}
+
+	/**
+	 * @param square - A square index.
+	 * @return The piece code on the square, or EMPTY.
+	 */
+	public int getPieceCodeAt (int square) {
+		return this.squares[square];
+	}
+
+	/**
+	 * Place a piece on an empty square.
+	 *
+	 * @param code - The piece code to place.
+	 * @param square - The empty square to place it on.
+	 */
+	protected void putPiece (int code, int square) {
+		if (code == EMPTY)
+			return;
+
+		int side = code / NUM_PIECE_TYPES;
+		long bit = Bitboard.bit(square);
+		this.pieceBitboards[code] |= bit;
+		this.allianceBitboards[side] |= bit;
+		this.occupied |= bit;
+		this.squares[square] = (byte) code;
+		this.key ^= Zobrist.piece(code, square);
+		this.material[side] += PieceSquareTables.material(code);
+		this.pieceSquareScores[side] += PieceSquareTables.pieceSquare(code, square);
+		this.taperedScores[side] += PieceSquareTables.tapered(code, square);
+		this.phase += PieceSquareTables.phase(code);
+	}
+
+	/**
+	 * Remove whatever piece is on a square.
+	 *
+	 * @param square - The square to empty.
+	 * @return The piece code that was on the square, or EMPTY.
+	 */
+	protected int clearSquare (int square) {
+		int code = this.squares[square];
+		if (code == EMPTY)
+			return EMPTY;
+
+		int side = code / NUM_PIECE_TYPES;
+		long bit = ~Bitboard.bit(square);
+		this.pieceBitboards[code] &= bit;
+		this.allianceBitboards[side] &= bit;
+		this.occupied &= bit;
+		this.squares[square] = (byte) EMPTY;
+		this.key ^= Zobrist.piece(code, square);
+		this.material[side] -= PieceSquareTables.material(code);
+		this.pieceSquareScores[side] -= PieceSquareTables.pieceSquare(code, square);
+		this.taperedScores[side] -= PieceSquareTables.tapered(code, square);
+		this.phase -= PieceSquareTables.phase(code);
+		return code;
 	}
 
 	@Override
 	public String toString () {
-		String out = "";
-		for (int rank = 0; rank < NUM_RANKS; rank++) {
-			for (int file = 0; file < NUM_FILES; file++) {
-				out += this.pieces[file][rank] + " ";
+		StringBuilder out = new StringBuilder();
+		for (int rank = NUM_RANKS; rank >= 1; rank--) {
+			for (int file = 1; file <= NUM_FILES; file++) {
+				int square = Bitboard.square(file, rank);
+				out.append(PIECES[this.squares[square]][square]).append(' ');
 			}
-			if (rank < NUM_RANKS - 1)
-				out += "\n";
+			if (rank > 1)
+				out.append('\n');
 		}
-		return out;
+		return out.toString();
 	}
 }
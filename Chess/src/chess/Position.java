@@ -1,28 +1,48 @@
 package chess;
 
 /**
- * 
+ * One of the 64 squares of the board. There is exactly one Position for each square,
+ * created when the class loads, so positions are never allocated while playing and can be
+ * compared and hashed by their square index.
  * 
  * @author Borna Sadeghi
  * @version Jul 16, 2019
  */
-public class Position {
+public final class Position {
+
+	private static final Position[] SQUARES = new Position[Bitboard.NUM_SQUARES];
 
-	// The actual values that correspond to the file and rank.
-	private int x, y;
+	static {
+		for (int square = 0; square < Bitboard.NUM_SQUARES; square++)
+			SQUARES[square] = new Position(square);
+	}
+
+	// The square index, and the actual values that correspond to the file and rank.
+	private final int index, x, y;
+
+	private Position (int index) {
+		this.index = index;
+		this.x = fileToX(Bitboard.fileOf(index));
+		this.y = rankToY(Bitboard.rankOf(index));
+	}
 
 	/**
-	 * Create a new Position object.
-	 * 
-	 * @param file - x-coordinate
-	 * @param rank - y-coordinate
+	 * @param index - A square index, from 0 (a1) to 63 (h8).
+	 * @return The Position of the square.
 	 */
-	public Position (int file, int rank) {
-		this.x = fileToX(file);
-		this.y = rankToY(rank);
+	public static Position of (int index) {
+		return SQUARES[index];
+	}
 
-//		if (!isValid(this))
-//			System.out.format("Warning: Invalid position initialized: %s\n", this);
+	/**
+	 * @param file - x-coordinate, from 1 to 8.
+	 * @param rank - y-coordinate, from 1 to 8.
+	 * @return The Position of the square.
+	 */
+	public static Position of (int file, int rank) {
+		if (!isValid(file, rank))
+			throw new RuntimeException(String.format("Invalid position: file %d, rank %d.", file, rank));
+		return SQUARES[Bitboard.square(file, rank)];
 	}
 
 	public int getFile () {
@@ -41,6 +61,13 @@ public class Position {
 		return y;
 	}
 
+	/**
+	 * @return The square index of this position, from 0 (a1) to 63 (h8).
+	 */
+	public int getIndex () {
+		return this.index;
+	}
+
 	/**
 	 * Convert a file to the actual index in the piece array.
 	 * @param file
@@ -91,9 +118,12 @@ public class Position {
 	
 	@Override
 	public boolean equals (Object obj) {
-		if (obj == null) return false;
-		Position other = (Position) obj;
-		return this.x == other.x && this.y == other.y;
+		return obj instanceof Position && this.index == ((Position) obj).index;
+	}
+
+	@Override
+	public int hashCode () {
+		return this.index;
 	}
 	
 	/**
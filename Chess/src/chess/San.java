@@ -0,0 +1,326 @@
+package chess;
+
+import java.util.Arrays;
+
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * Standard algebraic notation, read and written against one list of the legal moves of the
+ * position the move is played in.
+ *
+ * A SAN move names the moving piece, its destination and any promotion, plus whatever
+ * part of the start square is needed to tell it apart from another piece of the same type
+ * that could move there. Every one of those is a field of a MoveCode, so reading a move is
+ * a matter of comparing fields, and writing one only needs the other legal moves to the
+ * same square. Nothing is generated again for each move. The only move played is the one
+ * being written, to see whether it gives check, and the opponent's moves are only
+ * generated when it does, to see whether it is mate.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class San {
+
+	// Enough room for the longest SAN move, such as "Qa1xb2+" or "exd8=Q#".
+	public static final int MAX_LENGTH = 8;
+
+	private San () {
+	}
+
+	/**
+	 * @param board - The board the move is played on.
+	 * @param san - The move in SAN.
+	 * @return The legal move the SAN names.
+	 */
+	public static int decode (Board board, CharSequence san) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+		return decode(san, moves, count);
+	}
+
+	/**
+	 * @param san - The move in SAN, e.g. "Nbd7", "exd6", "e8=Q+" or "O-O".
+	 * @param moves - The legal moves of the position the move is played in.
+	 * @param count - The number of legal moves.
+	 * @return The legal move the SAN names.
+	 */
+	public static int decode (CharSequence san, int[] moves, int count) {
+		return decode(san, 0, san.length(), moves, count);
+	}
+
+	/**
+	 * @param san - Text holding the move in SAN.
+	 * @param start - The index the move starts at.
+	 * @param end - The index just after the move.
+	 * @param moves - The legal moves of the position the move is played in.
+	 * @param count - The number of legal moves.
+	 * @return The legal move the SAN names.
+	 */
+	public static int decode (CharSequence san, int start, int end, int[] moves, int count) {
+		// Check, mate and annotation marks say nothing about which move it is.
+		while (end > start && isSuffix(san.charAt(end - 1)))
+			end--;
+
+		if (end - start >= 3 && isCastleSymbol(san.charAt(start))) {
+			boolean queenside = end - start >= 5;
+			int flags = queenside ? MoveCode.QUEENSIDE_CASTLE : MoveCode.KINGSIDE_CASTLE;
+			for (int i = 0; i < count; i++) {
+				if (MoveCode.flags(moves[i]) == flags)
+					return moves[i];
+			}
+			throw invalid(san, start, end, "castling is not legal here");
+		}
+
+		PieceType type = PieceType.PAWN;
+		int i = start;
+		PieceType named = pieceType(i < end ? san.charAt(i) : ' ');
+		if (named != null) {
+			type = named;
+			i++;
+		}
+
+		PieceType promotionType = null;
+		if (type == PieceType.PAWN && end - i >= 3) {
+			promotionType = pieceType(san.charAt(end - 1));
+			if (promotionType != null) {
+				end--;
+				if (san.charAt(end - 1) == '=')
+					end--;
+			}
+		}
+
+		if (end - i < 2)
+			throw invalid(san, start, end, "no destination square");
+		int to = square(san.charAt(end - 2), san.charAt(end - 1));
+		if (to == Board.NO_SQUARE)
+			throw invalid(san, start, end, "no destination square");
+		end -= 2;
+
+		// Whatever is left between the piece and the destination narrows down the start square.
+		int fromFile = 0, fromRank = 0;
+		for (; i < end; i++) {
+			char c = san.charAt(i);
+			if ('a' <= c && c <= 'h')
+				fromFile = c - 'a' + 1;
+			else if ('1' <= c && c <= '8')
+				fromRank = c - '0';
+			else if (c != 'x' && c != '-' && c != ':')
+				throw invalid(san, start, end, "unexpected '" + c + "'");
+		}
+
+		int match = MoveCode.NONE;
+		for (int j = 0; j < count; j++) {
+			int move = moves[j];
+			int from = MoveCode.from(move);
+
+			if (MoveCode.to(move) != to || PieceGrid.pieceTypeOf(MoveCode.moved(move)) != type
+					|| MoveCode.promotionType(move) != promotionType)
+				continue;
+			if ((fromFile != 0 && Bitboard.fileOf(from) != fromFile) || (fromRank != 0 && Bitboard.rankOf(from) != fromRank))
+				continue;
+
+			if (match != MoveCode.NONE)
+				throw invalid(san, start, end, "more than one legal move matches");
+			match = move;
+		}
+
+		if (match == MoveCode.NONE)
+			throw invalid(san, start, end, "no legal move matches");
+		return match;
+	}
+
+	/**
+	 * @param board - The board the move is played on.
+	 * @param move - A legal move, as a MoveCode.
+	 * @return The move in SAN.
+	 */
+	public static String encode (Board board, int move) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+		return append(board, move, moves, count, new StringBuilder(MAX_LENGTH)).toString();
+	}
+
+	/**
+	 * Write a move in SAN onto the end of a StringBuilder. The move is played and taken back
+	 * to see whether it gives check, so the board is left as it was found.
+	 *
+	 * @param board - The board the move is played on.
+	 * @param move - A legal move, as a MoveCode.
+	 * @param moves - The legal moves of the board.
+	 * @param count - The number of legal moves.
+	 * @param out - The builder to append to.
+	 * @return The builder.
+	 */
+	public static StringBuilder append (Board board, int move, int[] moves, int count, StringBuilder out) {
+		int from = MoveCode.from(move), to = MoveCode.to(move);
+		int moved = MoveCode.moved(move);
+		PieceType type = PieceGrid.pieceTypeOf(moved);
+
+		if (MoveCode.isCastle(move)) {
+			out.append(MoveCode.flags(move) == MoveCode.KINGSIDE_CASTLE ? "O-O" : "O-O-O");
+		} else if (type == PieceType.PAWN) {
+			if (MoveCode.isCapture(move))
+				out.append(Notation.toFileCharacter(Bitboard.fileOf(from))).append('x');
+			appendSquare(to, out);
+
+			PieceType promotionType = MoveCode.promotionType(move);
+			if (promotionType != null)
+				out.append('=').append(promotionType.toString().charAt(0));
+		} else {
+			out.append(type.toString().charAt(0));
+
+			// Only name as much of the start square as tells this piece apart from others of
+			// its type that can also move to the destination.
+			boolean ambiguous = false, sameFile = false, sameRank = false;
+			for (int i = 0; i < count; i++) {
+				int other = moves[i];
+				int otherFrom = MoveCode.from(other);
+				if (MoveCode.to(other) != to || MoveCode.moved(other) != moved || otherFrom == from)
+					continue;
+
+				ambiguous = true;
+				sameFile |= Bitboard.fileOf(otherFrom) == Bitboard.fileOf(from);
+				sameRank |= Bitboard.rankOf(otherFrom) == Bitboard.rankOf(from);
+			}
+			if (ambiguous && (!sameFile || sameRank))
+				out.append(Notation.toFileCharacter(Bitboard.fileOf(from)));
+			if (ambiguous && sameFile)
+				out.append(Notation.toRankCharacter(Bitboard.rankOf(from)));
+
+			if (MoveCode.isCapture(move))
+				out.append('x');
+			appendSquare(to, out);
+		}
+
+		Alliance opponent = PieceGrid.allianceOf(moved).opponent();
+		board.makeMove(move);
+		if (board.inCheck(opponent)) {
+			int[] replies = new int[MoveGenerator.MAX_MOVES];
+			out.append(board.getLegalMoves(opponent, replies) == 0 ? '#' : '+');
+		}
+		board.unmakeMove(move);
+
+		return out;
+	}
+
+	/**
+	 * Read a sequence of moves in SAN, such as the moves of a game. Move numbers are skipped.
+	 *
+	 * @param board - The board the first move is played on. It is left as it was found.
+	 * @param text - The moves, separated by spaces.
+	 * @return The moves, as MoveCode ints.
+	 */
+	public static int[] decodeLine (Board board, CharSequence text) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int[] line = new int[16];
+		int length = 0;
+
+		try {
+			int i = 0;
+			while (i < text.length()) {
+				while (i < text.length() && Character.isWhitespace(text.charAt(i)))
+					i++;
+				int start = i;
+				while (i < text.length() && !Character.isWhitespace(text.charAt(i)))
+					i++;
+
+				// Skip a move number, which may be written right against the move.
+				int moveStart = start;
+				while (moveStart < i && Character.isDigit(text.charAt(moveStart)))
+					moveStart++;
+				if (moveStart < i && text.charAt(moveStart) == '.') {
+					while (moveStart < i && text.charAt(moveStart) == '.')
+						moveStart++;
+				} else {
+					moveStart = start;
+				}
+				if (moveStart == i)
+					continue;
+
+				int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+				int move = decode(text, moveStart, i, moves, count);
+
+				if (length == line.length)
+					line = Arrays.copyOf(line, length * 2);
+				line[length++] = move;
+				board.makeMove(move);
+			}
+		} finally {
+			for (int i = length - 1; i >= 0; i--)
+				board.unmakeMove(line[i]);
+		}
+
+		return Arrays.copyOf(line, length);
+	}
+
+	/**
+	 * Write a sequence of moves in SAN, such as the moves of a game.
+	 *
+	 * @param board - The board the first move is played on. It is left as it was found.
+	 * @param line - The moves, as MoveCode ints.
+	 * @param length - The number of moves.
+	 * @return The moves in SAN, separated by spaces.
+	 */
+	public static String encodeLine (Board board, int[] line, int length) {
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		StringBuilder out = new StringBuilder(length * 6);
+
+		for (int i = 0; i < length; i++) {
+			if (i > 0)
+				out.append(' ');
+			int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+			append(board, line[i], moves, count, out);
+			board.makeMove(line[i]);
+		}
+		for (int i = length - 1; i >= 0; i--)
+			board.unmakeMove(line[i]);
+
+		return out.toString();
+	}
+
+	/**
+	 * @return The piece type a SAN piece letter stands for, or null if it is not one.
+	 */
+	private static PieceType pieceType (char letter) {
+		switch (letter) {
+		case 'K':
+			return PieceType.KING;
+		case 'Q':
+			return PieceType.QUEEN;
+		case 'R':
+			return PieceType.ROOK;
+		case 'B':
+			return PieceType.BISHOP;
+		case 'N':
+			return PieceType.KNIGHT;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return The square index of a file letter and rank digit, or NO_SQUARE.
+	 */
+	private static int square (char file, char rank) {
+		if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+			return Board.NO_SQUARE;
+		return Bitboard.square(file - 'a' + 1, rank - '0');
+	}
+
+	private static void appendSquare (int square, StringBuilder out) {
+		out.append(Notation.toFileCharacter(Bitboard.fileOf(square))).append(Notation.toRankCharacter(Bitboard.rankOf(square)));
+	}
+
+	private static boolean isSuffix (char c) {
+		return c == '+' || c == '#' || c == '!' || c == '?';
+	}
+
+	private static boolean isCastleSymbol (char c) {
+		return c == 'O' || c == '0';
+	}
+
+	private static RuntimeException invalid (CharSequence san, int start, int end, String reason) {
+		return new RuntimeException(String.format("Invalid SAN move \"%s\": %s.", san.subSequence(start, Math.max(start, end)), reason));
+	}
+}
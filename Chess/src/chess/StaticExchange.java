@@ -0,0 +1,111 @@
+package chess;
+
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * Static exchange evaluation: works out whether a capture wins material once every piece
+ * that attacks the destination square has had its turn to recapture, without playing any
+ * move.
+ *
+ * Both sides recapture with their least valuable attacker first, and either side may stop
+ * when going on would lose more. Pieces are taken off the occupied bitboard as they
+ * capture, so sliders lined up behind them join in as they are uncovered. Pins are not
+ * considered.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class StaticExchange {
+
+	// The order attackers are tried in, least valuable first.
+	private static final PieceType[] ATTACKER_ORDER = { PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+			PieceType.QUEEN, PieceType.KING };
+
+	private StaticExchange () {
+	}
+
+	/**
+	 * @param board - The board the move is played on.
+	 * @param move - A legal capture or promotion, as a MoveCode.
+	 * @param threshold - The material the move has to gain.
+	 * @return True if the side making the move comes out of the exchange on its destination
+	 *         square at least threshold ahead.
+	 */
+	public static boolean isAtLeast (Board board, int move, int threshold) {
+		int from = MoveCode.from(move), to = MoveCode.to(move);
+		int captured = MoveCode.captured(move);
+		PieceType promotionType = MoveCode.promotionType(move);
+
+		// What the move wins outright, less what is needed.
+		int swap = (captured == PieceGrid.EMPTY ? 0 : value(PieceGrid.pieceTypeOf(captured))) - threshold;
+		if (promotionType != null)
+			swap += value(promotionType) - value(PieceType.PAWN);
+		if (swap < 0)
+			return false;
+
+		// What it stands to lose if the piece on the square is taken back.
+		PieceType onSquare = promotionType != null ? promotionType : PieceGrid.pieceTypeOf(MoveCode.moved(move));
+		swap = value(onSquare) - swap;
+		if (swap <= 0)
+			return true;
+
+		long occupied = board.getOccupiedBitboard() ^ Bitboard.bit(from) | Bitboard.bit(to);
+		if (MoveCode.isEnPassant(move))
+			occupied ^= Bitboard.bit(board.getEnPassantSquare() + (PieceGrid.allianceOf(MoveCode.moved(move)) == Alliance.WHITE ? -8 : 8));
+
+		long diagonal = board.getPieceBitboard(PieceType.BISHOP, Alliance.WHITE) | board.getPieceBitboard(PieceType.BISHOP, Alliance.BLACK)
+				| board.getPieceBitboard(PieceType.QUEEN, Alliance.WHITE) | board.getPieceBitboard(PieceType.QUEEN, Alliance.BLACK);
+		long straight = board.getPieceBitboard(PieceType.ROOK, Alliance.WHITE) | board.getPieceBitboard(PieceType.ROOK, Alliance.BLACK)
+				| board.getPieceBitboard(PieceType.QUEEN, Alliance.WHITE) | board.getPieceBitboard(PieceType.QUEEN, Alliance.BLACK);
+
+		long attackers = MoveGenerator.attackersTo(board, to, occupied, Alliance.WHITE)
+				| MoveGenerator.attackersTo(board, to, occupied, Alliance.BLACK);
+
+		Alliance side = PieceGrid.allianceOf(MoveCode.moved(move));
+		boolean result = true;
+
+		while (true) {
+			side = side.opponent();
+			attackers &= occupied;
+
+			long sideAttackers = attackers & board.getAllianceBitboard(side);
+			if (sideAttackers == Bitboard.EMPTY)
+				break;
+
+			// Each recapture flips who is ahead, if the capturing side wants to make it.
+			result = !result;
+
+			PieceType attacker = null;
+			long attackerBit = Bitboard.EMPTY;
+			for (PieceType type : ATTACKER_ORDER) {
+				long pieces = sideAttackers & board.getPieceBitboard(type, side);
+				if (pieces != Bitboard.EMPTY) {
+					attacker = type;
+					attackerBit = pieces & -pieces;
+					break;
+				}
+			}
+
+			// A king may only recapture if the other side has nothing left to take it with.
+			if (attacker == PieceType.KING)
+				return (attackers & ~board.getAllianceBitboard(side)) != Bitboard.EMPTY ? !result : result;
+
+			swap = value(attacker) - swap;
+			if (swap < (result ? 1 : 0))
+				break;
+
+			occupied ^= attackerBit;
+			if (attacker == PieceType.PAWN || attacker == PieceType.BISHOP || attacker == PieceType.QUEEN)
+				attackers |= Attacks.bishop(to, occupied) & diagonal;
+			if (attacker == PieceType.ROOK || attacker == PieceType.QUEEN)
+				attackers |= Attacks.rook(to, occupied) & straight;
+		}
+
+		return result;
+	}
+
+	private static int value (PieceType type) {
+		return type.getValue();
+	}
+}
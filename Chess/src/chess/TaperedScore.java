@@ -0,0 +1,51 @@
+package chess;
+
+/**
+ * Static helpers for a midgame and an endgame score packed into a single int, so that
+ * both can be added up and subtracted at once.
+ *
+ * The endgame score is kept in the high 16 bits and the midgame score in the low 16 bits,
+ * packed as eg * 65536 + mg. Adding two packed scores adds both halves, with any borrow
+ * from a negative midgame score carried into the endgame half, which is undone when the
+ * endgame score is read back.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class TaperedScore {
+
+	// The game phase of the starting position. Fewer pieces means a lower phase.
+	public static final int MAX_PHASE = 24;
+
+	private TaperedScore () {
+	}
+
+	/**
+	 * @param mg - The midgame score.
+	 * @param eg - The endgame score.
+	 * @return The packed score.
+	 */
+	public static int of (int mg, int eg) {
+		return (eg << 16) + mg;
+	}
+
+	public static int mg (int score) {
+		return (short) score;
+	}
+
+	public static int eg (int score) {
+		return (score + 0x8000) >> 16;
+	}
+
+	/**
+	 * Blend the midgame and endgame scores by how much material is left on the board.
+	 *
+	 * @param score - A packed score.
+	 * @param phase - The game phase, from 0 for bare kings and pawns up to MAX_PHASE.
+	 * @return The tapered score.
+	 */
+	public static int taper (int score, int phase) {
+		phase = Math.min(phase, MAX_PHASE);
+		return (mg(score) * phase + eg(score) * (MAX_PHASE - phase)) / MAX_PHASE;
+	}
+}
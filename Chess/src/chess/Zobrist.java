@@ -0,0 +1,85 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to build the Zobrist hash of a board.
+ *
+ * The key of a board is the XOR of the keys of every piece on its square, the side to
+ * move key when black is to move, the key of the current castling rights and the key of
+ * the en passant file. Each part can be XORed in or out as the board changes, so the key
+ * is updated incrementally instead of being recomputed.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class Zobrist {
+
+	// Fixed so that keys, and anything stored by key, are the same from run to run.
+	private static final long SEED = 0x5F0C1C4E55L;
+
+	private static final long[][] PIECE_KEYS = new long[PieceGrid.NUM_PIECE_CODES][Bitboard.NUM_SQUARES];
+	private static final long[] CASTLING_KEYS = new long[Board.ALL_CASTLING_RIGHTS + 1];
+	private static final long[] EN_PASSANT_KEYS = new long[PieceGrid.NUM_FILES];
+	private static final long BLACK_TO_MOVE_KEY;
+
+	static {
+		SplittableRandom random = new SplittableRandom(SEED);
+
+		for (long[] keys : PIECE_KEYS) {
+			for (int square = 0; square < keys.length; square++)
+				keys[square] = random.nextLong();
+		}
+
+		// Each castling right has its own key, and a set of rights is the XOR of its members.
+		long[] rightKeys = new long[4];
+		for (int i = 0; i < rightKeys.length; i++)
+			rightKeys[i] = random.nextLong();
+		for (int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+			for (int i = 0; i < rightKeys.length; i++) {
+				if ((rights & (1 << i)) != 0)
+					CASTLING_KEYS[rights] ^= rightKeys[i];
+			}
+		}
+
+		for (int file = 0; file < EN_PASSANT_KEYS.length; file++)
+			EN_PASSANT_KEYS[file] = random.nextLong();
+
+		BLACK_TO_MOVE_KEY = random.nextLong();
+	}
+
+	private Zobrist () {
+	}
+
+	/**
+	 * @param code - A piece code other than EMPTY.
+	 * @param square - A square index.
+	 * @return The key of the given piece standing on the given square.
+	 */
+	public static long piece (int code, int square) {
+		return PIECE_KEYS[code][square];
+	}
+
+	/**
+	 * @param castlingRights - A combination of the castling right flags in Board.
+	 * @return The key of the given castling rights.
+	 */
+	public static long castling (int castlingRights) {
+		return CASTLING_KEYS[castlingRights];
+	}
+
+	/**
+	 * @param enPassantSquare - The en passant square, or Board.NO_SQUARE.
+	 * @return The key of the en passant square's file, or 0 if there is none.
+	 */
+	public static long enPassant (int enPassantSquare) {
+		return enPassantSquare == Board.NO_SQUARE ? 0 : EN_PASSANT_KEYS[enPassantSquare & 7];
+	}
+
+	/**
+	 * @return The key XORed in while black is to move.
+	 */
+	public static long blackToMove () {
+		return BLACK_TO_MOVE_KEY;
+	}
+}
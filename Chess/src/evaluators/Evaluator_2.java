@@ -0,0 +1,65 @@
+package evaluators;
+
+import chess.Attacks;
+import chess.Bitboard;
+import chess.Board;
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * Scores material and piece placement from the running totals the board keeps as moves
+ * are made and taken back, so they cost nothing to read. Mobility is the number of
+ * squares each knight, bishop, rook and queen attacks that are not taken by its own side,
+ * counted from attack bitboards rather than by generating moves.
+ * 
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class Evaluator_2 implements BoardEvaluator {
+
+	// Bonus for each square a piece can reach, in centipawns.
+	private static final int KNIGHT_MOBILITY = 4;
+	private static final int BISHOP_MOBILITY = 5;
+	private static final int ROOK_MOBILITY = 2;
+	private static final int QUEEN_MOBILITY = 1;
+
+	/**
+	 * 
+	 */
+	@Override
+	public int evaluate (Board board) {
+		return this.scorePlayer(board, Alliance.WHITE) - this.scorePlayer(board, Alliance.BLACK);
+	}
+
+	/**
+	 * @param board
+	 * @param alliance
+	 * @return The score of the alliance's pieces alone.
+	 */
+	private int scorePlayer (Board board, Alliance alliance) {
+		return board.getMaterial(alliance)
+				+ board.getPieceSquareScore(alliance)
+				+ calculateMobility(board, alliance);
+	}
+
+	private static int calculateMobility (Board board, Alliance alliance) {
+		long occupied = board.getOccupiedBitboard();
+		long targets = ~board.getAllianceBitboard(alliance);
+		int mobility = 0;
+
+		for (long knights = board.getPieceBitboard(PieceType.KNIGHT, alliance); knights != 0; knights = Bitboard.popLowest(knights))
+			mobility += KNIGHT_MOBILITY * Bitboard.count(Attacks.knight(Bitboard.lowestSquare(knights)) & targets);
+
+		for (long bishops = board.getPieceBitboard(PieceType.BISHOP, alliance); bishops != 0; bishops = Bitboard.popLowest(bishops))
+			mobility += BISHOP_MOBILITY * Bitboard.count(Attacks.bishop(Bitboard.lowestSquare(bishops), occupied) & targets);
+
+		for (long rooks = board.getPieceBitboard(PieceType.ROOK, alliance); rooks != 0; rooks = Bitboard.popLowest(rooks))
+			mobility += ROOK_MOBILITY * Bitboard.count(Attacks.rook(Bitboard.lowestSquare(rooks), occupied) & targets);
+
+		for (long queens = board.getPieceBitboard(PieceType.QUEEN, alliance); queens != 0; queens = Bitboard.popLowest(queens))
+			mobility += QUEEN_MOBILITY * Bitboard.count(Attacks.queen(Bitboard.lowestSquare(queens), occupied) & targets);
+
+		return mobility;
+	}
+
+}
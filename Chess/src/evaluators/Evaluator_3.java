@@ -0,0 +1,26 @@
+package evaluators;
+
+import chess.Board;
+import chess.TaperedScore;
+import pieces.Alliance;
+
+/**
+ * Scores the board with PeSTO's midgame and endgame piece-square tables, blended by the
+ * game phase. Both scores are kept packed together in one running total on the board, so
+ * an evaluation is a subtraction and one blend, with nothing allocated.
+ * 
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class Evaluator_3 implements BoardEvaluator {
+
+	/**
+	 * 
+	 */
+	@Override
+	public int evaluate (Board board) {
+		int score = board.getTaperedScore(Alliance.WHITE) - board.getTaperedScore(Alliance.BLACK);
+		return TaperedScore.taper(score, board.getGamePhase());
+	}
+
+}
@@ -0,0 +1,91 @@
+package ingest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import chess.Board;
+
+/**
+ * Reads an EPD position suite, one position per line.
+ *
+ * An EPD line is the first four fields of a FEN string followed by operations such as
+ * "bm Nf3; id \"test 1\";". Each position is checked by setting it up on a board before it
+ * is handed on, and lines that do not hold a valid position are skipped and counted.
+ * Blank lines and lines starting with '#' are ignored.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class EpdReader implements PositionReader {
+
+	private static final int FEN_FIELDS = 4;
+
+	private final LineReader lines;
+	private long skipped;
+
+	public EpdReader (Path path) throws IOException {
+		this(new LineReader(path));
+	}
+
+	public EpdReader (LineReader lines) {
+		this.lines = lines;
+	}
+
+	@Override
+	public long readAll (Sink sink) throws IOException, InterruptedException {
+		StringBuilder line = new StringBuilder();
+		StringBuilder fen = new StringBuilder();
+		long count = 0;
+
+		while (this.lines.readLine(line)) {
+			int i = skipSpaces(line, 0);
+			if (i == line.length() || line.charAt(i) == '#')
+				continue;
+
+			// The FEN fields, with the move counters EPD leaves out.
+			fen.setLength(0);
+			for (int field = 0; field < FEN_FIELDS && i < line.length(); field++) {
+				if (field > 0)
+					fen.append(' ');
+				for (; i < line.length() && !isSpace(line.charAt(i)); i++)
+					fen.append(line.charAt(i));
+				i = skipSpaces(line, i);
+			}
+			fen.append(" 0 1");
+
+			Board board;
+			try {
+				board = new Board(fen.toString());
+			} catch (RuntimeException e) {
+				this.skipped++;
+				continue;
+			}
+
+			String operations = i < line.length() ? line.substring(i).trim() : null;
+			sink.accept(new PositionRecord(this.lines.getLineNumber(), 0, board.toFen(), null, operations));
+			count++;
+		}
+
+		return count;
+	}
+
+	@Override
+	public long getSkipped () {
+		return this.skipped;
+	}
+
+	@Override
+	public void close () throws IOException {
+		this.lines.close();
+	}
+
+	private static int skipSpaces (CharSequence line, int i) {
+		while (i < line.length() && isSpace(line.charAt(i)))
+			i++;
+		return i;
+	}
+
+	private static boolean isSpace (char c) {
+		return c == ' ' || c == '\t';
+	}
+}
@@ -0,0 +1,165 @@
+package ingest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import chess.Board;
+import chess.Move;
+import chess.Notation;
+import evaluators.Evaluator_3;
+import player.ai.AlphaBetaSelector;
+
+/**
+ * Streams positions from a PGN or EPD file to worker threads that analyze them.
+ *
+ * The calling thread reads the file and puts each position on a bounded queue, which
+ * blocks it whenever the workers fall behind, so memory use stays the same however large
+ * the file is. When the file is finished, one end marker is queued for each worker, and
+ * each worker stops when it takes one.
+ *
+ * Usage: IngestPipeline <file.pgn | file.epd> [threads] [depth]
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class IngestPipeline {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	// Put on the queue once for each worker after the last position, to stop it.
+	private static final PositionRecord END = new PositionRecord(-1, 0, null, null, null);
+
+	private final int numWorkers;
+	private final int queueCapacity;
+
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * @param numWorkers - The number of threads to analyze positions on.
+	 */
+	public IngestPipeline (int numWorkers) {
+		this(numWorkers, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * @param numWorkers - The number of threads to analyze positions on.
+	 * @param queueCapacity - The most positions that may be waiting for a worker.
+	 */
+	public IngestPipeline (int numWorkers, int queueCapacity) {
+		if (numWorkers < 1 || queueCapacity < 1)
+			throw new IllegalArgumentException("A pipeline needs at least one worker and room in its queue.");
+		this.numWorkers = numWorkers;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Read every position from a reader and analyze it, returning once all of them have
+	 * been analyzed. The reader is closed at the end.
+	 *
+	 * @param reader - Where to read positions from.
+	 * @param analyzers - Creates the analyzer for each worker.
+	 * @return The number of positions read.
+	 */
+	public long run (PositionReader reader, Supplier<? extends PositionAnalyzer> analyzers) throws IOException, InterruptedException {
+		BlockingQueue<PositionRecord> queue = new ArrayBlockingQueue<>(this.queueCapacity);
+
+		Thread[] workers = new Thread[this.numWorkers];
+		for (int i = 0; i < workers.length; i++) {
+			PositionAnalyzer analyzer = analyzers.get();
+			workers[i] = new Thread(() -> this.work(queue, analyzer), "ingest-worker-" + i);
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+
+		try (PositionReader positions = reader) {
+			return positions.readAll(queue::put);
+		} finally {
+			for (int i = 0; i < workers.length; i++)
+				queue.put(END);
+			for (Thread worker : workers)
+				worker.join();
+		}
+	}
+
+	/**
+	 * Read every position of a PGN file and analyze it.
+	 */
+	public long runPgn (Path path, Supplier<? extends PositionAnalyzer> analyzers) throws IOException, InterruptedException {
+		return this.run(new PgnReader(path), analyzers);
+	}
+
+	/**
+	 * Read every position of an EPD file and analyze it.
+	 */
+	public long runEpd (Path path, Supplier<? extends PositionAnalyzer> analyzers) throws IOException, InterruptedException {
+		return this.run(new EpdReader(path), analyzers);
+	}
+
+	/**
+	 * @return The number of positions an analyzer failed on.
+	 */
+	public long getFailedCount () {
+		return this.failed.get();
+	}
+
+	private void work (BlockingQueue<PositionRecord> queue, PositionAnalyzer analyzer) {
+		try {
+			while (true) {
+				PositionRecord record = queue.take();
+				if (record == END)
+					return;
+
+				// One bad position should not stop the worker, or the reader would block forever
+				// on a full queue.
+				try {
+					analyzer.analyze(record);
+				} catch (RuntimeException e) {
+					this.failed.incrementAndGet();
+					System.err.println("Failed to analyze " + record.getFen() + ": " + e.getMessage());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Search every position in a file to a fixed depth, printing the best move found.
+	 */
+	public static void main (String[] args) throws IOException, InterruptedException {
+		if (args.length == 0) {
+			System.err.println("Usage: IngestPipeline <file.pgn | file.epd> [threads] [depth]");
+			return;
+		}
+
+		Path path = Paths.get(args[0]);
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+		IngestPipeline pipeline = new IngestPipeline(threads);
+		Supplier<PositionAnalyzer> analyzers = () -> {
+			AlphaBetaSelector selector = new AlphaBetaSelector(depth, new Evaluator_3());
+			return record -> {
+				Board board = new Board(record.getFen());
+				Move best = selector.bestMove(board);
+				System.out.println(record.getFen() + " ; best " + (best == null ? "none" : Notation.toCoordinateNotation(best))
+						+ " ; score " + selector.getBestScore() + (record.getMove() == null ? "" : " ; played " + record.getMove()));
+			};
+		};
+
+		boolean epd = args[0].toLowerCase().endsWith(".epd");
+		PositionReader reader = epd ? new EpdReader(path) : new PgnReader(path);
+
+		long start = System.currentTimeMillis();
+		long positions = pipeline.run(reader, analyzers);
+		long millis = System.currentTimeMillis() - start;
+
+		System.err.format("%d positions in %d ms on %d threads, %d %s skipped, %d failed\n", positions, millis, threads,
+				reader.getSkipped(), epd ? "lines" : "games", pipeline.getFailedCount());
+	}
+}
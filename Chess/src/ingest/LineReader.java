@@ -0,0 +1,119 @@
+package ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file one line at a time through a fixed-size buffer, so files of any size can be
+ * read in constant memory.
+ *
+ * Bytes are read from the channel into one buffer that is reused for the whole file, and
+ * each line is copied into a StringBuilder supplied by the caller. PGN and EPD files are
+ * plain ASCII, so each byte is taken as one character (ISO-8859-1), and anything outside
+ * ASCII in comments or tags comes through unchanged but harmless.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class LineReader implements Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	// The longest line that is read before giving up on the file. Some PGN exports put a
+	// whole game on one line, so this is generous, but it keeps memory bounded.
+	public static final int MAX_LINE_LENGTH = 1 << 20;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	private long lineNumber;
+	private boolean endOfInput;
+
+	/**
+	 * @param path - The file to read.
+	 */
+	public LineReader (Path path) throws IOException {
+		this(FileChannel.open(path, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param channel - The channel to read from. It is closed along with this reader.
+	 * @param bufferSize - The size of the read buffer, in bytes.
+	 */
+	public LineReader (ReadableByteChannel channel, int bufferSize) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.buffer.flip();
+	}
+
+	/**
+	 * Read the next line, without its line terminator.
+	 *
+	 * @param line - The builder to read the line into. It is cleared first.
+	 * @return False if the end of the file was reached before any line was read.
+	 */
+	public boolean readLine (StringBuilder line) throws IOException {
+		line.setLength(0);
+		boolean readAnything = false;
+
+		while (true) {
+			if (!this.buffer.hasRemaining()) {
+				if (this.endOfInput || !this.fill())
+					break;
+			}
+			readAnything = true;
+
+			byte b = this.buffer.get();
+			if (b == '\n') {
+				this.lineNumber++;
+				return true;
+			}
+			if (b == '\r')
+				continue;
+
+			if (line.length() == MAX_LINE_LENGTH)
+				throw new IOException(String.format("Line %d is longer than %d characters.", this.lineNumber + 1, MAX_LINE_LENGTH));
+			line.append((char) (b & 0xFF));
+		}
+
+		// The last line of a file need not end with a line terminator.
+		if (readAnything)
+			this.lineNumber++;
+		return readAnything;
+	}
+
+	/**
+	 * @return The number of lines read so far, which is the line number of the last line read.
+	 */
+	public long getLineNumber () {
+		return this.lineNumber;
+	}
+
+	@Override
+	public void close () throws IOException {
+		this.channel.close();
+	}
+
+	/**
+	 * Refill the buffer from the channel.
+	 *
+	 * @return False if there is nothing left to read.
+	 */
+	private boolean fill () throws IOException {
+		this.buffer.clear();
+		int read;
+		do {
+			read = this.channel.read(this.buffer);
+		} while (read == 0);
+		this.buffer.flip();
+
+		if (read < 0)
+			this.endOfInput = true;
+		return read > 0;
+	}
+}
@@ -0,0 +1,107 @@
+package ingest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import chess.Perft;
+
+/**
+ * Reads small PGN files with known positions, to check PgnReader against them.
+ *
+ * Usage:
+ *   PgnCheck                       Run the suite, exiting with 1 if any case is wrong.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class PgnCheck {
+
+	/**
+	 * A PGN file with the positions it should give, each as its game number, ply and the
+	 * start of its FEN.
+	 */
+	private static class PgnCase {
+		private final String name;
+		private final String pgn;
+		private final long skipped;
+		private final String[] positions;
+
+		private PgnCase (String name, String pgn, long skipped, String... positions) {
+			this.name = name;
+			this.pgn = pgn;
+			this.skipped = skipped;
+			this.positions = positions;
+		}
+	}
+
+	private static final String KRK = "4k3/8/8/8/8/8/8/R3K3 w - - 0 1";
+	private static final String START = Perft.START_FEN;
+	private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+	private static final String AFTER_E5 = "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2";
+
+	private static final PgnCase[] SUITE = {
+			new PgnCase("Two games",
+					"[Event \"1\"]\n\n1. e4 e5 1-0\n\n[Event \"2\"]\n\n1. e4 *\n", 0,
+					"1 0 " + START, "1 1 " + AFTER_E4, "1 2 " + AFTER_E5,
+					"2 0 " + START, "2 1 " + AFTER_E4),
+			new PgnCase("Game with no moves from a FEN, then a game from the start",
+					"[Event \"1\"]\n[FEN \"" + KRK + "\"]\n\n*\n\n[Event \"2\"]\n\n1. e4 e5 1/2-1/2\n", 0,
+					"1 0 " + KRK,
+					"2 0 " + START, "2 1 " + AFTER_E4, "2 2 " + AFTER_E5),
+			new PgnCase("Game from a FEN, then a game from the start",
+					"[FEN \"" + KRK + "\"]\n\n1. Ra8# 1-0\n\n[Event \"2\"]\n\n1. e4 *\n", 0,
+					"1 0 " + KRK, "1 1 R3k3/8/8/8/8/8/8/4K3 b - - 1 1",
+					"2 0 " + START, "2 1 " + AFTER_E4),
+			new PgnCase("Illegal move skips the rest of its game",
+					"1. e4 e4 2. Nf3 *\n\n1. e4 (1. d4 d5) {comment} 0-1\n", 1,
+					"1 0 " + START,
+					"2 0 " + START, "2 1 " + AFTER_E4),
+	};
+
+	public static void main (String[] args) throws IOException, InterruptedException {
+		System.exit(runSuite() ? 0 : 1);
+	}
+
+	/**
+	 * Read every case in the suite, printing each result.
+	 *
+	 * @return True if every case gave the positions it should.
+	 */
+	public static boolean runSuite () throws IOException, InterruptedException {
+		boolean allCorrect = true;
+
+		for (PgnCase pgnCase : SUITE) {
+			final List<String> positions = new ArrayList<String>();
+			byte[] bytes = pgnCase.pgn.getBytes(StandardCharsets.US_ASCII);
+
+			long skipped;
+			try (PgnReader reader = new PgnReader(new LineReader(Channels.newChannel(new ByteArrayInputStream(bytes)), 64))) {
+				reader.readAll(new PositionReader.Sink() {
+					@Override
+					public void accept (PositionRecord record) {
+						positions.add(record.getSource() + " " + record.getPly() + " " + record.getFen());
+					}
+				});
+				skipped = reader.getSkipped();
+			}
+
+			boolean correct = skipped == pgnCase.skipped && positions.size() == pgnCase.positions.length;
+			for (int i = 0; correct && i < positions.size(); i++)
+				correct = positions.get(i).equals(pgnCase.positions[i]);
+			allCorrect &= correct;
+
+			System.out.format("%-60s %d positions %d skipped  %s\n", pgnCase.name, positions.size(), skipped, correct ? "ok" : "WRONG");
+			if (!correct) {
+				for (String position : positions)
+					System.out.println("    " + position);
+			}
+		}
+
+		System.out.println(allCorrect ? "All cases correct" : "Some cases are wrong");
+		return allCorrect;
+	}
+}
@@ -0,0 +1,278 @@
+package ingest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import chess.Board;
+import chess.Fen;
+import chess.MoveGenerator;
+import chess.San;
+
+/**
+ * Reads the games of a PGN file one line at a time, playing out each game's moves on a
+ * board and handing on every position reached.
+ *
+ * Each position is handed on with the move played from it, and the last position of a
+ * game is handed on with no move. Tag pairs are read only for a FEN tag giving the
+ * starting position, which holds until the next game's tags begin. Comments, variations,
+ * numeric annotations and move numbers are skipped. A game ends at its result, at the
+ * tags of the next game, or at the end of the file. A result with no moves before it is a
+ * game of no moves, whose starting position is handed on by itself.
+ *
+ * Moves are looked up in the legal moves of the position they are played in, so a move
+ * that is not legal, or that does not name exactly one legal move, ends the game. Its
+ * remaining moves are skipped and the game is counted as skipped.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class PgnReader implements PositionReader {
+
+	private static final String[] RESULTS = { "1-0", "0-1", "1/2-1/2", "*" };
+
+	private final LineReader lines;
+	private final StringBuilder line = new StringBuilder();
+	private final StringBuilder token = new StringBuilder();
+	private final StringBuilder fen = new StringBuilder(Fen.MAX_LENGTH);
+	private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+	private long games, skipped, count;
+
+	// The game being read.
+	private boolean inGame;
+	private Board board;
+	private String startFen;
+	private int ply;
+	private boolean skipping;
+
+	// True while reading a game's tags, so that the first of them starts afresh.
+	private boolean inTags;
+
+	// Where the reader is in the movetext.
+	private boolean inComment;
+	private int variationDepth;
+
+	public PgnReader (Path path) throws IOException {
+		this(new LineReader(path));
+	}
+
+	public PgnReader (LineReader lines) {
+		this.lines = lines;
+	}
+
+	@Override
+	public long readAll (Sink sink) throws IOException, InterruptedException {
+		this.count = 0;
+
+		while (this.lines.readLine(this.line)) {
+			if (!this.inComment) {
+				int start = 0;
+				while (start < this.line.length() && Character.isWhitespace(this.line.charAt(start)))
+					start++;
+				if (start == this.line.length())
+					continue;
+
+				char first = this.line.charAt(start);
+				if (first == '[') {
+					if (this.inGame)
+						this.endGame(sink);
+					if (!this.inTags)
+						this.startFen = null;
+					this.inTags = true;
+					this.readTag(start);
+					continue;
+				}
+				// Lines starting with '%' are escaped and ignored.
+				if (first == '%')
+					continue;
+			}
+
+			this.inTags = false;
+			this.readMovetext(sink);
+		}
+
+		if (this.inGame)
+			this.endGame(sink);
+		return this.count;
+	}
+
+	/**
+	 * @return The number of games started so far.
+	 */
+	public long getGameCount () {
+		return this.games;
+	}
+
+	@Override
+	public long getSkipped () {
+		return this.skipped;
+	}
+
+	@Override
+	public void close () throws IOException {
+		this.lines.close();
+	}
+
+	/**
+	 * Read a tag pair such as [FEN "..."], keeping the value if it gives a starting position.
+	 */
+	private void readTag (int start) {
+		int nameStart = start + 1, nameEnd = nameStart;
+		while (nameEnd < this.line.length() && !Character.isWhitespace(this.line.charAt(nameEnd)) && this.line.charAt(nameEnd) != '"')
+			nameEnd++;
+
+		int valueStart = this.line.indexOf("\"", nameEnd) + 1;
+		int valueEnd = this.line.lastIndexOf("\"");
+		if (valueStart == 0 || valueEnd < valueStart)
+			return;
+
+		if (nameEnd - nameStart == 3 && this.line.indexOf("FEN", nameStart) == nameStart)
+			this.startFen = this.line.substring(valueStart, valueEnd).trim();
+	}
+
+	/**
+	 * Split a line of movetext into tokens, skipping comments and variations, which may
+	 * carry on from earlier lines.
+	 */
+	private void readMovetext (Sink sink) throws InterruptedException {
+		for (int i = 0; i < this.line.length(); i++) {
+			char c = this.line.charAt(i);
+
+			if (this.inComment) {
+				if (c == '}')
+					this.inComment = false;
+				continue;
+			}
+
+			switch (c) {
+			case '{':
+				this.endToken(sink);
+				this.inComment = true;
+				break;
+			case ';':
+				// A comment to the end of the line.
+				this.endToken(sink);
+				return;
+			case '(':
+				this.endToken(sink);
+				this.variationDepth++;
+				break;
+			case ')':
+				this.endToken(sink);
+				if (this.variationDepth > 0)
+					this.variationDepth--;
+				break;
+			case ' ':
+			case '\t':
+				this.endToken(sink);
+				break;
+			default:
+				this.token.append(c);
+			}
+		}
+
+		this.endToken(sink);
+	}
+
+	private void endToken (Sink sink) throws InterruptedException {
+		if (this.token.length() > 0) {
+			this.readToken(sink);
+			this.token.setLength(0);
+		}
+	}
+
+	private void readToken (Sink sink) throws InterruptedException {
+		if (isResult(this.token)) {
+			if (this.variationDepth == 0) {
+				if (!this.inGame)
+					this.startGame();
+				this.endGame(sink);
+			}
+			return;
+		}
+		if (this.variationDepth > 0)
+			return;
+
+		// Move numbers, as in "12." or "12...", may be written right against the move.
+		int start = 0, end = this.token.length();
+		while (start < end && Character.isDigit(this.token.charAt(start)))
+			start++;
+		if (start == end)
+			return;
+		if (this.token.charAt(start) == '.') {
+			while (start < end && this.token.charAt(start) == '.')
+				start++;
+		} else {
+			start = 0;
+		}
+		if (start == end || this.token.charAt(start) == '$')
+			return;
+
+		if (!this.inGame)
+			this.startGame();
+		if (!this.skipping)
+			this.playMove(start, end, sink);
+	}
+
+	private void startGame () {
+		this.inGame = true;
+		this.games++;
+		this.ply = 0;
+		this.skipping = false;
+
+		try {
+			this.board = new Board(this.startFen != null ? this.startFen : Board.DEFAULT_START_LAYOUT);
+		} catch (RuntimeException e) {
+			this.skipGame();
+		}
+	}
+
+	/**
+	 * Hand on the position before a move, then play it.
+	 */
+	private void playMove (int start, int end, Sink sink) throws InterruptedException {
+		int numMoves = this.board.getLegalMoves(this.board.getCurrentPlayer(), this.moves);
+
+		int move;
+		try {
+			move = San.decode(this.token, start, end, this.moves, numMoves);
+		} catch (RuntimeException e) {
+			this.skipGame();
+			return;
+		}
+
+		this.emit(this.token.substring(start, end), sink);
+		this.board.makeMove(move);
+		this.ply++;
+	}
+
+	private void endGame (Sink sink) throws InterruptedException {
+		if (!this.skipping)
+			this.emit(null, sink);
+
+		this.inGame = false;
+		this.board = null;
+		this.startFen = null;
+		this.variationDepth = 0;
+	}
+
+	private void skipGame () {
+		this.skipping = true;
+		this.skipped++;
+	}
+
+	private void emit (String move, Sink sink) throws InterruptedException {
+		this.fen.setLength(0);
+		Fen.append(this.board, this.fen);
+		sink.accept(new PositionRecord(this.games, this.ply, this.fen.toString(), move, null));
+		this.count++;
+	}
+
+	private static boolean isResult (CharSequence token) {
+		for (String result : RESULTS) {
+			if (result.contentEquals(token))
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,14 @@
+package ingest;
+
+/**
+ * Work done on each position read by an IngestPipeline. Each worker thread has an analyzer
+ * of its own, so an analyzer need not be thread safe.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public interface PositionAnalyzer {
+
+	public void analyze (PositionRecord record);
+
+}
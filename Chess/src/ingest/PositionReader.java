@@ -0,0 +1,35 @@
+package ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads positions from a file and hands them on one at a time.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public interface PositionReader extends Closeable {
+
+	/**
+	 * Something positions are handed to as they are read. Handing one on may block, for
+	 * example while a bounded queue is full.
+	 */
+	public interface Sink {
+		public void accept (PositionRecord record) throws InterruptedException;
+	}
+
+	/**
+	 * Read every position left in the file.
+	 *
+	 * @param sink - Where to hand each position.
+	 * @return The number of positions handed on.
+	 */
+	public long readAll (Sink sink) throws IOException, InterruptedException;
+
+	/**
+	 * @return The number of games or lines that could not be read and were skipped.
+	 */
+	public long getSkipped ();
+
+}
@@ -0,0 +1,68 @@
+package ingest;
+
+/**
+ * One position read from a PGN game or an EPD line, ready to be handed to another thread.
+ *
+ * The position is kept as a FEN string rather than a Board, so a record is small and
+ * immutable, and each worker sets up its own board from it.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class PositionRecord {
+
+	private final long source;
+	private final int ply;
+	private final String fen;
+	private final String move;
+	private final String operations;
+
+	/**
+	 * @param source - The number of the game the position is from, or the line number of an
+	 *            EPD position.
+	 * @param ply - The number of half moves played in the game to reach the position.
+	 * @param fen - The position, in FEN.
+	 * @param move - The move played from the position in SAN, or null if there is none.
+	 * @param operations - The EPD operations given with the position, or null.
+	 */
+	public PositionRecord (long source, int ply, String fen, String move, String operations) {
+		this.source = source;
+		this.ply = ply;
+		this.fen = fen;
+		this.move = move;
+		this.operations = operations;
+	}
+
+	public long getSource () {
+		return this.source;
+	}
+
+	public int getPly () {
+		return this.ply;
+	}
+
+	public String getFen () {
+		return this.fen;
+	}
+
+	/**
+	 * @return The move played from the position in SAN, or null at the end of a game or for
+	 *         an EPD position.
+	 */
+	public String getMove () {
+		return this.move;
+	}
+
+	/**
+	 * @return The EPD operations given with the position, such as "bm Nf3; id \"test\";", or
+	 *         null for a position from a game.
+	 */
+	public String getOperations () {
+		return this.operations;
+	}
+
+	@Override
+	public String toString () {
+		return this.fen;
+	}
+}
@@ -2,9 +2,8 @@ package pieces;
 
 import java.util.ArrayList;
 
+import chess.Attacks;
 import chess.Board;
-import chess.Move;
-import chess.PieceGrid;
 import chess.Position;
 
 /**
@@ -24,7 +23,7 @@ public class Bishop extends Piece {
 	}
 
 	public Bishop (int file, int rank, Alliance alliance) {
-		super(new Position(file, rank), alliance);
+		super(Position.of(file, rank), alliance);
 	}
 
 	/**
@@ -35,78 +34,14 @@ public class Bishop extends Piece {
 		super(pieceToCopy);
 	}
 
-	/**
-	 * @param board
-	 * @return
-	 */
-	@Override
-	public ArrayList<Move> calculateLegalMoves (Board board) {
-		ArrayList<Move> moves = new ArrayList<Move>();
-		
-		for (Position dest : this.getAttackedPositions(board)) {
-			Move move = new Move (board, this, dest);
-			if (!move.leavesPlayerInCheck(this.getAlliance()))
-				moves.add(new Move (board, this, dest));
-		}
-		
-		return moves;
-	}
-
 	/**
 	 * 
 	 * @return An ArrayList of the squares that this piece attacks.
 	 */
 	@Override
 	public ArrayList<Position> getAttackedPositions(Board board) {
-		ArrayList<Position> dests = new ArrayList<Position>();
-
-		int file = this.getFile(), rank = this.getRank();
-
-		// Up-left
-		for (int i=1; i<file && i<=PieceGrid.NUM_RANKS-rank; i++) {
-			if (board.pieceExistsAt(file-i, rank+i)) {
-				if (board.getPieceAt(file-i, rank+i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file-i, rank+i));
-				break;
-			} else {
-				dests.add(new Position(file-i, rank+i));
-			}
-		}
-
-		// Up-right
-		for (int i=1; i<=PieceGrid.NUM_FILES-file && i<=PieceGrid.NUM_RANKS-rank; i++) {
-			if (board.pieceExistsAt(file+i, rank+i)) {
-				if (board.getPieceAt(file+i, rank+i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file+i, rank+i));
-				break;
-			} else {
-				dests.add(new Position(file+i, rank+i));
-			}
-		}
-		
-		// Down-left
-		for (int i=1; i<file && i<rank; i++) {
-			if (board.pieceExistsAt(file-i, rank-i)) {
-				if (board.getPieceAt(file-i, rank-i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file-i, rank-i));
-				break;
-			} else {
-				dests.add(new Position(file-i, rank-i));
-			}
-		}
-
-		// Down-right
-		for (int i=1; i<=PieceGrid.NUM_FILES-file && i<rank; i++) {
-			if (board.pieceExistsAt(file+i, rank-i)) {
-				if (board.getPieceAt(file+i, rank-i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file+i, rank-i));
-				break;
-			} else {
-				dests.add(new Position(file+i, rank-i));
-			}
-		}
-
-		return dests;
+		int square = this.getPosition().getIndex();
+		return toPositions(Attacks.bishop(square, board.getOccupiedBitboard()) & ~board.getAllianceBitboard(this.getAlliance()));
 	}
 	
 	/**
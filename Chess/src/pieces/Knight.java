@@ -2,8 +2,8 @@ package pieces;
 
 import java.util.ArrayList;
 
+import chess.Attacks;
 import chess.Board;
-import chess.Move;
 import chess.Position;
 
 /**
@@ -24,7 +24,7 @@ public class Knight extends Piece {
 	}
 
 	public Knight (int file, int rank, Alliance alliance) {
-		super(new Position(file, rank), alliance);
+		super(Position.of(file, rank), alliance);
 	}
 
 	/**
@@ -35,71 +35,14 @@ public class Knight extends Piece {
 		super(pieceToCopy);
 	}
 
-	/**
-	 * Calculate legal moves for the knight.
-	 * 
-	 * @param board
-	 * @return An arraylist of the knight's current legal moves. 
-	 */
-	public ArrayList<Move> calculateLegalMoves(Board board) {
-		ArrayList<Move> moves = new ArrayList<Move>();
-
-		for (Position dest : this.getAttackedPositions(board)) {
-			Move move = new Move (board, this, dest);
-			if (!move.leavesPlayerInCheck(this.getAlliance()))
-				moves.add(new Move (board, this, dest));
-		}
-
-		return moves;
-	}
-
 	/**
 	 * 
 	 * @return An ArrayList of the squares that this piece attacks.
 	 */
 	@Override
 	public ArrayList<Position> getAttackedPositions(Board board) {
-		ArrayList<Position> dests = new ArrayList<Position>();
-
-		int file = this.getFile(), rank = this.getRank();
-
-		Position dest = new Position (file-2, rank-1);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-		dest = new Position (file-2, rank+1);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-		dest = new Position (file-1, rank-2);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-		dest = new Position (file-1, rank+2);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-
-		dest = new Position (file+1, rank-2);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-
-		dest = new Position (file+1, rank+2);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-
-		dest = new Position (file+2, rank-1);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-
-		dest = new Position (file+2, rank+1);
-		if (this.isValidDestination(board, dest))
-			dests.add(dest);
-
-		return dests;
+		int square = this.getPosition().getIndex();
+		return toPositions(Attacks.knight(square) & ~board.getAllianceBitboard(this.getAlliance()));
 	}
 
 	@Override
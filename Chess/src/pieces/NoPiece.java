@@ -23,7 +23,7 @@ public class NoPiece extends Piece {
 	}
 	
 	public NoPiece(int file, int rank) {
-		this(new Position(file, rank));
+		this(Position.of(file, rank));
 	}
 	
 	public NoPiece (Piece pieceToCopy) {
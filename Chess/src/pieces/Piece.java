@@ -2,8 +2,10 @@ package pieces;
 
 import java.util.ArrayList;
 
+import chess.Bitboard;
 import chess.Board;
 import chess.Move;
+import chess.MoveGenerator;
 import chess.Position;
 
 /**
@@ -14,12 +16,9 @@ import chess.Position;
  */
 public abstract class Piece {
 
-	private Position position;
-	private ArrayList<Move> legalMoves;
-	private Alliance alliance;
-
-	private boolean hasMoved = false;
-
+	// Pieces are shared between boards, so a piece never changes once created.
+	private final Position position;
+	private final Alliance alliance;
 
 	/**
 	 * Instantiate a new Piece object.
@@ -40,14 +39,12 @@ public abstract class Piece {
 	 * @param alliance - White or black.
 	 */
 	public Piece (int file, int rank, Alliance alliance) {
-		this(new Position(file, rank), alliance);
+		this(Position.of(file, rank), alliance);
 	}
 	
 	public Piece (Piece pieceToCopy) {
 		this.position = pieceToCopy.position;
-		this.legalMoves = pieceToCopy.legalMoves;
 		this.alliance = pieceToCopy.alliance;
-		this.hasMoved = pieceToCopy.hasMoved;
 	}
 
 	/**
@@ -57,25 +54,6 @@ public abstract class Piece {
 		return this.position;
 	}
 
-	/**
-	 * Update this piece's position object.
-	 * 
-	 * @param position - The new Position.
-	 */
-	public void setPosition (Position position) {
-		this.position = position;
-	}
-
-	/**
-	 * Update this piece's position object.
-	 * 
-	 * @param file - The new file.
-	 * @param rank - The new rank.
-	 */
-	public void setPosition (int file, int rank) {
-		this.setPosition(new Position(file, rank));
-	}
-
 	/**
 	 * @return The file this piece is on.
 	 */
@@ -101,14 +79,6 @@ public abstract class Piece {
 		return this.alliance.opponent();
 	}
 
-	public void setHasMoved () {
-		this.hasMoved = true;
-	}
-
-	public boolean hasMoved () {
-		return this.hasMoved;
-	}
-
 	/**
 	 * @return True if this piece is white.
 	 */
@@ -146,19 +116,10 @@ public abstract class Piece {
 	}
 	
 	/**
-	 * @return The already-calculated list of legal moves.
+	 * @return The list of legal moves for this piece on the given board.
 	 */
 	public ArrayList<Move> getLegalMoves (Board board) {
-		return this.legalMoves == null ? this.calculateLegalMoves(board) : this.legalMoves;
-	}
-
-	/**
-	 * Update this piece's list of legal moves.
-	 * 
-	 * @param board - The board to find valid moves on for this piece.
-	 */
-	public void updateLegalMoves (Board board) {
-		this.legalMoves = this.calculateLegalMoves(board);
+		return this.calculateLegalMoves(board);
 	}
 	
 	public int getValue () {
@@ -170,7 +131,9 @@ public abstract class Piece {
 	 * 
 	 * @param board - The Board to calculate moves on.
 	 */
-	public abstract ArrayList<Move> calculateLegalMoves (Board board);
+	public ArrayList<Move> calculateLegalMoves (Board board) {
+		return MoveGenerator.generateLegalMoves(board, this.alliance, Bitboard.bit(this.position.getIndex()));
+	}
 
 	/**
 	 * 
@@ -178,6 +141,19 @@ public abstract class Piece {
 	 */
 	public abstract ArrayList<Position> getAttackedPositions (Board board);
 
+	/**
+	 * @param squares - A bitboard of squares.
+	 * @return The Positions of the squares set on the bitboard.
+	 */
+	protected static ArrayList<Position> toPositions (long squares) {
+		ArrayList<Position> positions = new ArrayList<Position>(Bitboard.count(squares));
+		for (; squares != 0; squares = Bitboard.popLowest(squares)) {
+			int square = Bitboard.lowestSquare(squares);
+			positions.add(Position.of(square));
+		}
+		return positions;
+	}
+
 	/**
 	 * @return The type of piece this is.
 	 */
@@ -2,9 +2,8 @@ package pieces;
 
 import java.util.ArrayList;
 
+import chess.Attacks;
 import chess.Board;
-import chess.Move;
-import chess.PieceGrid;
 import chess.Position;
 
 /**
@@ -24,7 +23,7 @@ public class Rook extends Piece {
 	}
 
 	public Rook (int file, int rank, Alliance alliance) {
-		super(new Position(file, rank), alliance);
+		super(Position.of(file, rank), alliance);
 	}
 
 
@@ -35,78 +34,14 @@ public class Rook extends Piece {
 		super(pieceToCopy);
 	}
 
-	/**
-	 * @param board
-	 * @return
-	 */
-	@Override
-	public ArrayList<Move> calculateLegalMoves (Board board) {
-		ArrayList<Move> moves = new ArrayList<Move>();
-
-		for (Position dest : this.getAttackedPositions(board)) {
-			Move move = new Move (board, this, dest);
-			if (!move.leavesPlayerInCheck(this.getAlliance()))
-				moves.add(new Move (board, this, dest));
-		}
-
-		return moves;
-	}
-
 	/**
 	 * 
 	 * @return An ArrayList of the squares that this piece attacks.
 	 */
 	@Override
 	public ArrayList<Position> getAttackedPositions(Board board) {
-		ArrayList<Position> dests = new ArrayList<Position>();
-
-		int file = this.getFile(), rank = this.getRank();
-
-		// Left
-		for (int i=file-1; i>=1; i--) {
-			if (board.pieceExistsAt(i, rank)) {
-				if (board.getPieceAt(i, rank).getAlliance() != this.getAlliance())
-					dests.add(new Position(i, rank));
-				break;
-			} else {
-				dests.add(new Position(i, rank));
-			}
-		}
-
-		// Right
-		for (int i=file+1; i<=PieceGrid.NUM_FILES; i++) {
-			if (board.pieceExistsAt(i, rank)) {
-				if (board.getPieceAt(i, rank).getAlliance() != this.getAlliance())
-					dests.add(new Position(i, rank));
-				break;
-			} else {
-				dests.add(new Position(i, rank));
-			}
-		}
-
-		// Up
-		for (int i=rank+1; i<=PieceGrid.NUM_RANKS; i++) {
-			if (board.pieceExistsAt(file, i)) {
-				if (board.getPieceAt(file, i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file, i));
-				break;
-			} else {
-				dests.add(new Position(file, i));
-			}
-		}
-		
-		// Down
-		for (int i=rank-1; i>=1; i--) {
-			if (board.pieceExistsAt(file, i)) {
-				if (board.getPieceAt(file, i).getAlliance() != this.getAlliance())
-					dests.add(new Position(file, i));
-				break;
-			} else {
-				dests.add(new Position(file, i));
-			}
-		}
-
-		return dests;
+		int square = this.getPosition().getIndex();
+		return toPositions(Attacks.rook(square, board.getOccupiedBitboard()) & ~board.getAllianceBitboard(this.getAlliance()));
 	}
 	
 	/**
@@ -0,0 +1,727 @@
+package player.ai;
+
+import java.util.Arrays;
+
+import chess.Bitboard;
+import chess.Board;
+import chess.Move;
+import chess.MoveCode;
+import chess.MoveGenerator;
+import chess.PieceGrid;
+import chess.StaticExchange;
+import evaluators.BoardEvaluator;
+import pieces.Alliance;
+import pieces.PieceType;
+import tablebase.Tablebase;
+
+/**
+ * Chooses moves with a negamax alpha-beta search.
+ *
+ * Results are kept in a transposition table, so a position reached again by a different
+ * order of moves is not searched again. The table is kept between searches.
+ *
+ * The search deepens one ply at a time, searching the principal variation of the last
+ * iteration first. When searching against the clock it stops as soon as time runs out and
+ * plays the best move of the last iteration that finished.
+ *
+ * Moves are searched in order of the hash move, captures by most valuable victim and
+ * least valuable attacker, killer moves, and then quiet moves by their history score, so
+ * that cutoffs happen as early as possible.
+ *
+ * At the end of the main search, a quiescence search plays out captures and promotions
+ * until the position is quiet, so that leaves are not scored in the middle of an
+ * exchange. The side to move may stand pat on the static evaluation instead of capturing,
+ * and captures that cannot raise the score to alpha, or that lose material by static
+ * exchange evaluation, are skipped.
+ *
+ * Moves are handled as MoveCode ints throughout, generated into one preallocated buffer
+ * for each ply, so the search does not allocate as it goes.
+ *
+ * The search is selective. Before searching the moves of a position, the side to move
+ * passes, and if a shallower search still fails high the position is cut off without
+ * searching its moves. This is not tried when the side to move has only pawns left, where
+ * passing could be better than any move. Quiet moves late in the move ordering are
+ * searched to a reduced depth, reduced more the later they come and less if they have
+ * caused cutoffs elsewhere, and searched again to the full depth if they beat alpha.
+ *
+ * Given a tablebase, the search stops at positions in it and scores them as won, drawn
+ * or lost, and if the root is in it, plays the move that mates soonest, or holds out
+ * longest, without searching at all.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class AlphaBetaSelector implements MoveStrategy {
+
+	public static final int INFINITY = 1000000;
+	public static final int MATE = 100000;
+
+	// The score of a position the tablebase says is won, less the plies to reach it. It is
+	// below every mate score, so the search still prefers a mate it can see.
+	public static final int TABLEBASE_WIN = MATE / 2;
+
+	// The deepest ply the search keeps killer moves for.
+	protected static final int MAX_PLY = 128;
+
+	// Null move pruning is tried from this depth, with the null move searched this much shallower.
+	private static final int NULL_MOVE_MIN_DEPTH = 3;
+	private static final int NULL_MOVE_REDUCTION = 2;
+
+	// Late move reductions start from this depth, after this many moves have been searched in full.
+	private static final int LMR_MIN_DEPTH = 3;
+	private static final int LMR_FULL_DEPTH_MOVES = 3;
+
+	// The depth late moves are reduced by, by remaining depth and by the number of the move.
+	private static final int[][] REDUCTIONS = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+	static {
+		for (int depth = 1; depth < MAX_PLY; depth++) {
+			for (int moveNumber = 1; moveNumber < MoveGenerator.MAX_MOVES; moveNumber++)
+				REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+		}
+	}
+
+	// How many nodes are searched between checks of the clock and node limit.
+	private static final int NODES_PER_TIME_CHECK = 1024;
+
+	// How far above the captured piece's value a capture may be expected to raise the
+	// score, for positional gains the static evaluation may reward.
+	private static final int DELTA_MARGIN = 200;
+
+	// Move ordering bonuses, from most to least important.
+	private static final int HASH_MOVE_SCORE = 1 << 30;
+	private static final int CAPTURE_SCORE = 1 << 26;
+	private static final int KILLER_SCORE = 1 << 24;
+	private static final int HISTORY_LIMIT = 1 << 22;
+
+	private BoardEvaluator evaluator;
+	private int searchDepth;
+	private TranspositionTable table;
+	private Tablebase tablebase;
+	private Tablebase.Buffers tablebaseBuffers = new Tablebase.Buffers();
+
+	private int[][] killers = new int[MAX_PLY][2];
+	private int[][] history = new int[64][64];
+
+	// The moves, and their ordering scores, at each ply.
+	private int[][] moveBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+	private int[][] scoreBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+
+	// The principal variation found below each ply, and the one from the last finished iteration.
+	private int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+	private int[] pvLength = new int[MAX_PLY + 1];
+	private int[] previousPv = new int[MAX_PLY];
+	private int previousPvLength;
+	private boolean followingPv;
+
+	private long nodes;
+	private long deadline;
+	private long nodeLimit = Long.MAX_VALUE;
+	private SearchListener listener;
+	private volatile boolean stopped;
+
+	private int completedDepth;
+	private int bestScore;
+
+	public AlphaBetaSelector (int searchDepth, BoardEvaluator evaluator) {
+		this(searchDepth, evaluator, new TranspositionTable());
+	}
+
+	public AlphaBetaSelector (int searchDepth, BoardEvaluator evaluator, TranspositionTable table) {
+		this.searchDepth = searchDepth;
+		this.evaluator = evaluator;
+		this.table = table;
+	}
+
+	/**
+	 * Search to the fixed search depth this selector was created with.
+	 */
+	@Override
+	public Move bestMove (Board board) {
+		this.table.newSearch();
+		this.stopped = false;
+		return this.search(board, 1, this.searchDepth, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Search deeper and deeper until the time limit runs out.
+	 * 
+	 * @param board - The board to find a move on.
+	 * @param timeLimitMillis - How long the search may take, in milliseconds.
+	 * @return The best move found by the deepest search that finished in time.
+	 */
+	public Move bestMove (Board board, long timeLimitMillis) {
+		this.table.newSearch();
+		this.stopped = false;
+		return this.search(board, 1, MAX_PLY - 1, System.currentTimeMillis() + timeLimitMillis);
+	}
+
+	/**
+	 * Search deeper and deeper until any of the limits is reached, or the search is stopped.
+	 * 
+	 * @param board - The board to find a move on.
+	 * @param maxDepth - The deepest iteration to search.
+	 * @param deadline - The time in milliseconds at which to stop, or Long.MAX_VALUE.
+	 * @param nodeLimit - The number of positions to stop after, or Long.MAX_VALUE.
+	 * @return The best move found by the deepest search that finished in time.
+	 */
+	public Move bestMove (Board board, int maxDepth, long deadline, long nodeLimit) {
+		this.table.newSearch();
+		this.stopped = false;
+		this.nodeLimit = nodeLimit;
+		try {
+			return this.search(board, 1, Math.min(maxDepth, MAX_PLY - 1), deadline);
+		} finally {
+			this.nodeLimit = Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * @param listener - Told each time an iteration finishes, or null.
+	 */
+	public void setListener (SearchListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @param tablebase - The endgame tables to look positions up in, or null.
+	 */
+	public void setTablebase (Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+
+	/**
+	 * Stop after a number of positions, in the searches run by a ParallelSelector.
+	 */
+	void setNodeLimit (long nodeLimit) {
+		this.nodeLimit = nodeLimit;
+	}
+
+	/**
+	 * Stop the current search as soon as possible. It still returns the best move of its
+	 * last finished iteration.
+	 */
+	public void stop () {
+		this.stopped = true;
+	}
+
+	/**
+	 * Let the next search run. This is kept apart from search itself, so that a stop
+	 * requested before the search gets going is not lost.
+	 */
+	void clearStop () {
+		this.stopped = false;
+	}
+
+	/**
+	 * @param board - The board to find a move on.
+	 * @param firstDepth - The depth of the first iteration.
+	 * @param maxDepth - The deepest iteration to search.
+	 * @param deadline - The time in milliseconds at which to stop searching.
+	 * @return The best move of the deepest finished iteration.
+	 */
+	Move search (Board rootBoard, int firstDepth, int maxDepth, long deadline) {
+		// Search on a copy so the caller's board is left alone while moves are made and taken back.
+		Board board = new Board(rootBoard);
+
+		this.nodes = 0;
+		this.deadline = deadline;
+		this.completedDepth = 0;
+		this.previousPvLength = 0;
+		this.clearHeuristics();
+
+		int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+		int rootCount = board.getLegalMoves(board.getCurrentPlayer(), rootMoves);
+		if (rootCount == 0)
+			return null;
+
+		if (this.tablebase != null) {
+			int tablebaseMove = this.tablebaseMove(board);
+			if (tablebaseMove != MoveCode.NONE)
+				return Move.decode(rootBoard, tablebaseMove);
+		}
+
+		// If not even the first iteration finishes, fall back on the table's move or any move.
+		int bestMove = TranspositionTable.moveOf(this.table.probe(board.getKey()));
+
+		for (int depth = firstDepth; depth <= maxDepth; depth++) {
+			this.followingPv = true;
+			int score = this.negamax(board, depth, -INFINITY, INFINITY, 0, true);
+
+			if (this.stopped)
+				break;
+
+			this.completedDepth = depth;
+			this.bestScore = score;
+			this.previousPvLength = this.pvLength[0];
+			System.arraycopy(this.pv[0], 0, this.previousPv, 0, this.previousPvLength);
+
+			if (this.previousPvLength > 0)
+				bestMove = this.previousPv[0];
+
+			if (this.listener != null)
+				this.listener.iterationFinished(depth, score, this.nodes, this.previousPv, this.previousPvLength);
+		}
+
+		for (int i = 0; i < rootCount; i++) {
+			if (MoveCode.sameMove(rootMoves[i], bestMove))
+				return Move.decode(rootBoard, rootMoves[i]);
+		}
+		return Move.decode(rootBoard, rootMoves[0]);
+	}
+
+	/**
+	 * @return The depth of the last iteration that finished.
+	 */
+	public int getCompletedDepth () {
+		return this.completedDepth;
+	}
+
+	/**
+	 * @return The score of the last iteration that finished, for the side to move.
+	 */
+	public int getBestScore () {
+		return this.bestScore;
+	}
+
+	/**
+	 * @return The encoded moves of the principal variation of the last finished iteration.
+	 */
+	public int[] getPrincipalVariation () {
+		return Arrays.copyOf(this.previousPv, this.previousPvLength);
+	}
+
+	/**
+	 * @return The transposition table used by this search.
+	 */
+	public TranspositionTable getTranspositionTable () {
+		return this.table;
+	}
+
+	/**
+	 * @return The number of positions visited by the last search.
+	 */
+	public long getNodeCount () {
+		return this.nodes;
+	}
+
+	/**
+	 * @param board - The board to search, which is left as it was found.
+	 * @param depth - The remaining depth to search.
+	 * @param alpha - The score the side to move is already guaranteed.
+	 * @param beta - The score the opponent is already guaranteed, as seen by the side to move.
+	 * @param ply - The distance from the root of the search.
+	 * @param nullMoveAllowed - False straight after a null move, so that two are not played in a row.
+	 * @return The score of the board for the side to move.
+	 */
+	private int negamax (Board board, int depth, int alpha, int beta, int ply, boolean nullMoveAllowed) {
+		if (depth <= 0 || ply >= MAX_PLY) { // Base case
+			return this.quiescence(board, alpha, beta, ply);
+		}
+
+		this.nodes++;
+		this.pvLength[ply] = ply;
+
+		if ((this.nodes & (NODES_PER_TIME_CHECK - 1)) == 0)
+			this.checkLimits();
+		if (this.stopped)
+			return 0;
+
+		long key = board.getKey();
+		long entry = this.table.probe(key);
+		int hashMove = 0;
+
+		if (ply > 0 && this.tablebase != null && Bitboard.count(board.getOccupiedBitboard()) <= this.tablebase.getMaxPieces()) {
+			int result = this.tablebase.probeWdl(board, this.tablebaseBuffers);
+			if (result != Tablebase.UNKNOWN)
+				return result == Tablebase.WIN ? TABLEBASE_WIN - ply : result == Tablebase.LOSS ? -TABLEBASE_WIN + ply : 0;
+		}
+
+		if (entry != TranspositionTable.MISS) {
+			hashMove = TranspositionTable.moveOf(entry);
+
+			// The root always searches, so that it has a move to return.
+			if (ply > 0 && TranspositionTable.depthOf(entry) >= depth) {
+				int score = fromTableScore(TranspositionTable.scoreOf(entry), ply);
+
+				switch (TranspositionTable.boundOf(entry)) {
+				case TranspositionTable.EXACT:
+					return score;
+				case TranspositionTable.LOWER_BOUND:
+					if (score >= beta)
+						return beta;
+					break;
+				case TranspositionTable.UPPER_BOUND:
+					if (score <= alpha)
+						return alpha;
+					break;
+				}
+			}
+		}
+
+		Alliance player = board.getCurrentPlayer();
+		boolean inCheck = board.inCheck(player);
+
+		// Null move pruning: if passing still fails high, a real move will almost always do so
+		// too. Mate scores are left to a full search, and the principal variation is not cut.
+		if (nullMoveAllowed && ply > 0 && !inCheck && !this.followingPv && depth >= NULL_MOVE_MIN_DEPTH
+				&& Math.abs(beta) < TABLEBASE_WIN - MAX_PLY && hasPieces(board, player) && this.evaluate(board) >= beta) {
+			board.makeNullMove();
+			int value = -this.negamax(board, depth - 1 - NULL_MOVE_REDUCTION, -beta, -beta + 1, ply + 1, false);
+			board.unmakeNullMove();
+
+			if (this.stopped)
+				return 0;
+			if (value >= beta)
+				return beta;
+		}
+
+		int[] moves = this.moveBuffers[ply];
+		int count = board.getLegalMoves(player, moves);
+
+		if (count == 0) {
+			return inCheck ? -MATE + ply : 0;
+		}
+
+		// Along the last iteration's principal variation, its move is searched first.
+		if (this.followingPv) {
+			if (ply < this.previousPvLength)
+				hashMove = this.previousPv[ply];
+			else
+				this.followingPv = false;
+		}
+
+		int[] scores = this.scoreBuffers[ply];
+		this.scoreMoves(moves, scores, count, hashMove, ply);
+		int bestMove = MoveCode.NONE;
+		int originalAlpha = alpha;
+
+		for (int i = 0; i < count; i++) {
+			int move = pickNext(moves, scores, count, i);
+			boolean quiet = MoveCode.isQuiet(move);
+
+			board.makeMove(move);
+
+			int value;
+			int reduction = this.reduction(board, move, scores[i], depth, i, ply, inCheck);
+			if (reduction > 0) {
+				// Only a move that beats alpha at the reduced depth is worth searching in full.
+				value = -this.negamax(board, depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+				if (value > alpha && !this.stopped)
+					value = -this.negamax(board, depth - 1, -beta, -alpha, ply + 1, true);
+			} else {
+				value = -this.negamax(board, depth - 1, -beta, -alpha, ply + 1, true);
+			}
+
+			board.unmakeMove(move);
+
+			// Only the first move of a principal variation node continues the variation.
+			this.followingPv = false;
+
+			if (this.stopped)
+				return 0;
+
+			if (value >= beta) {
+				if (quiet)
+					this.storeCutoff(move, depth, ply);
+				this.table.store(key, MoveCode.toShort(move), depth, TranspositionTable.LOWER_BOUND, toTableScore(beta, ply));
+				return beta;
+			}
+			if (value > alpha) {
+				alpha = value;
+				bestMove = move;
+				this.updatePv(ply, bestMove);
+			}
+		}
+
+		if (alpha > originalAlpha)
+			this.table.store(key, MoveCode.toShort(bestMove), depth, TranspositionTable.EXACT, toTableScore(alpha, ply));
+		else
+			this.table.store(key, 0, depth, TranspositionTable.UPPER_BOUND, toTableScore(alpha, ply));
+
+		return alpha;
+	}
+
+	/**
+	 * Search captures and promotions only, until the position is quiet. A player in check
+	 * cannot stand pat, so every way out of the check is searched instead.
+	 *
+	 * @param board - The board to search, which is left as it was found.
+	 * @param alpha - The score the side to move is already guaranteed.
+	 * @param beta - The score the opponent is already guaranteed, as seen by the side to move.
+	 * @param ply - The distance from the root of the search.
+	 * @return The score of the board for the side to move.
+	 */
+	private int quiescence (Board board, int alpha, int beta, int ply) {
+		this.nodes++;
+		this.pvLength[ply] = ply;
+
+		if ((this.nodes & (NODES_PER_TIME_CHECK - 1)) == 0)
+			this.checkLimits();
+		if (this.stopped)
+			return 0;
+
+		if (ply >= MAX_PLY)
+			return this.evaluate(board);
+
+		Alliance player = board.getCurrentPlayer();
+		int[] moves = this.moveBuffers[ply];
+		int count;
+		int standPat = -INFINITY;
+
+		boolean inCheck = board.inCheck(player);
+		if (inCheck) {
+			count = board.getLegalMoves(player, moves);
+			if (count == 0)
+				return -MATE + ply;
+		} else {
+			// The side to move can usually do at least as well as doing nothing.
+			standPat = this.evaluate(board);
+			if (standPat >= beta)
+				return beta;
+			if (standPat > alpha)
+				alpha = standPat;
+
+			count = board.getTacticalMoves(player, moves);
+		}
+
+		int[] scores = this.scoreBuffers[ply];
+		this.scoreMoves(moves, scores, count, MoveCode.NONE, ply);
+
+		for (int i = 0; i < count; i++) {
+			int move = pickNext(moves, scores, count, i);
+
+			if (!inCheck && !MoveCode.isPromotion(move)) {
+				// Delta pruning: even winning the piece for free would not reach alpha.
+				if (standPat + PieceGrid.pieceTypeOf(MoveCode.captured(move)).getValue() + DELTA_MARGIN <= alpha)
+					continue;
+				if (!StaticExchange.isAtLeast(board, move, 0))
+					continue;
+			}
+
+			board.makeMove(move);
+			int value = -this.quiescence(board, -beta, -alpha, ply + 1);
+			board.unmakeMove(move);
+
+			if (this.stopped)
+				return 0;
+
+			if (value >= beta)
+				return beta;
+			if (value > alpha)
+				alpha = value;
+		}
+
+		return alpha;
+	}
+
+	/**
+	 * Work out how much shallower to search a move, once it has been made. Only quiet moves
+	 * late in the ordering are reduced, and not killers, moves out of check or moves that
+	 * give check.
+	 *
+	 * @param board - The board after the move.
+	 * @param move - The move.
+	 * @param orderingScore - The move's ordering score, which for a quiet move is its history score.
+	 * @param depth - The remaining depth before the move.
+	 * @param moveNumber - The number of moves searched before this one.
+	 * @param ply - The distance from the root of the search, before the move.
+	 * @param inCheck - True if the side that made the move was in check.
+	 * @return The number of plies to reduce the search by, leaving at least one.
+	 */
+	private int reduction (Board board, int move, int orderingScore, int depth, int moveNumber, int ply, boolean inCheck) {
+		if (depth < LMR_MIN_DEPTH || moveNumber < LMR_FULL_DEPTH_MOVES || inCheck || !MoveCode.isQuiet(move)
+				|| MoveCode.sameMove(move, this.killers[ply][0]) || MoveCode.sameMove(move, this.killers[ply][1])
+				|| board.inCheck(board.getCurrentPlayer()))
+			return 0;
+
+		int reduction = REDUCTIONS[Math.min(depth, MAX_PLY - 1)][moveNumber];
+
+		// A move that has caused cutoffs elsewhere is likely to again.
+		if (orderingScore > 0)
+			reduction--;
+
+		return Math.max(0, Math.min(reduction, depth - 2));
+	}
+
+	/**
+	 * @return True if the player has a piece other than its king and pawns. Without one,
+	 *         zugzwang is common enough that passing cannot be trusted to be the worst move.
+	 */
+	private static boolean hasPieces (Board board, Alliance player) {
+		return (board.getPieceBitboard(PieceType.KNIGHT, player) | board.getPieceBitboard(PieceType.BISHOP, player)
+				| board.getPieceBitboard(PieceType.ROOK, player) | board.getPieceBitboard(PieceType.QUEEN, player)) != 0;
+	}
+
+	/**
+	 * Find the root move in the tablebase, reporting it as a finished first iteration.
+	 *
+	 * @return The move, or MoveCode.NONE if the root is not in the tablebase.
+	 */
+	private int tablebaseMove (Board board) {
+		int move = this.tablebase.bestMove(board);
+		if (move == MoveCode.NONE)
+			return MoveCode.NONE;
+
+		int result = this.tablebase.probeDtm(board, this.tablebaseBuffers);
+		int score = 0;
+		if (result > 0)
+			score = MATE - (Tablebase.MATE - result);
+		else if (result < 0)
+			score = -MATE + (Tablebase.MATE + result);
+
+		this.completedDepth = 1;
+		this.bestScore = score;
+		this.previousPv[0] = move;
+		this.previousPvLength = 1;
+		if (this.listener != null)
+			this.listener.iterationFinished(1, score, this.nodes, this.previousPv, this.previousPvLength);
+		return move;
+	}
+
+	/**
+	 * Stop the search once it runs out of time or reaches its node limit.
+	 */
+	private void checkLimits () {
+		if (this.nodes >= this.nodeLimit || System.currentTimeMillis() >= this.deadline)
+			this.stopped = true;
+	}
+
+	/**
+	 * Make the given move followed by the variation below it the principal variation at this ply.
+	 */
+	private void updatePv (int ply, int move) {
+		int[] line = this.pv[ply], childLine = this.pv[ply + 1];
+		int childLength = this.pvLength[ply + 1];
+
+		line[ply] = move;
+		System.arraycopy(childLine, ply + 1, line, ply + 1, childLength - (ply + 1));
+		this.pvLength[ply] = Math.max(childLength, ply + 1);
+	}
+
+	/**
+	 * Mate and tablebase scores count the plies from the root, but a table entry can be
+	 * reached at any ply, so they are stored as the plies from the entry's own position
+	 * instead.
+	 */
+	private static int toTableScore (int score, int ply) {
+		if (score >= TABLEBASE_WIN - MAX_PLY)
+			return score + ply;
+		if (score <= -TABLEBASE_WIN + MAX_PLY)
+			return score - ply;
+		return score;
+	}
+
+	private static int fromTableScore (int score, int ply) {
+		if (score >= TABLEBASE_WIN - MAX_PLY)
+			return score - ply;
+		if (score <= -TABLEBASE_WIN + MAX_PLY)
+			return score + ply;
+		return score;
+	}
+
+	/**
+	 * @param board
+	 * @return The static evaluation of the board for the side to move.
+	 */
+	private int evaluate (Board board) {
+		int score = this.evaluator.evaluate(board);
+		return board.isWhiteTurn() ? score : -score;
+	}
+
+	/**
+	 * Give each move an ordering score, higher scores being searched first.
+	 *
+	 * @param moves - The moves to score.
+	 * @param scores - The buffer to write the ordering score of each move into.
+	 * @param count - The number of moves.
+	 * @param hashMove - The move that was best the last time this board was searched, or NONE.
+	 * @param ply - The distance from the root of the search.
+	 */
+	private void scoreMoves (int[] moves, int[] scores, int count, int hashMove, int ply) {
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+
+			if (MoveCode.sameMove(move, hashMove)) {
+				scores[i] = HASH_MOVE_SCORE;
+			} else if (!MoveCode.isQuiet(move)) {
+				// Most valuable victim, least valuable attacker. Piece types run from the king to
+				// the pawn, so a later type is a cheaper attacker.
+				int captured = MoveCode.captured(move);
+				int victim = captured == PieceGrid.EMPTY ? 0 : PieceGrid.pieceTypeOf(captured).getValue();
+				if (MoveCode.isPromotion(move))
+					victim += MoveCode.promotionType(move).getValue();
+				scores[i] = CAPTURE_SCORE + victim * 16 + PieceGrid.pieceTypeOf(MoveCode.moved(move)).ordinal();
+			} else if (MoveCode.sameMove(move, this.killers[ply][0])) {
+				scores[i] = KILLER_SCORE + 1;
+			} else if (MoveCode.sameMove(move, this.killers[ply][1])) {
+				scores[i] = KILLER_SCORE;
+			} else {
+				scores[i] = this.history[MoveCode.from(move)][MoveCode.to(move)];
+			}
+		}
+	}
+
+	/**
+	 * Move the highest scoring move not yet searched into the given index.
+	 *
+	 * @param moves
+	 * @param scores
+	 * @param count - The number of moves.
+	 * @param index - The number of moves already searched.
+	 * @return The next move to search.
+	 */
+	private static int pickNext (int[] moves, int[] scores, int count, int index) {
+		int best = index;
+		for (int i = index + 1; i < count; i++) {
+			if (scores[i] > scores[best])
+				best = i;
+		}
+
+		if (best != index) {
+			int score = scores[index];
+			scores[index] = scores[best];
+			scores[best] = score;
+
+			int move = moves[index];
+			moves[index] = moves[best];
+			moves[best] = move;
+		}
+
+		return moves[index];
+	}
+
+	/**
+	 * Remember a quiet move that caused a beta cutoff, as a killer for its ply and in the
+	 * history table.
+	 */
+	private void storeCutoff (int move, int depth, int ply) {
+		if (!MoveCode.sameMove(this.killers[ply][0], move)) {
+			this.killers[ply][1] = this.killers[ply][0];
+			this.killers[ply][0] = move;
+		}
+
+		int[] fromHistory = this.history[MoveCode.from(move)];
+		int to = MoveCode.to(move);
+		fromHistory[to] += depth * depth;
+
+		// Keep history scores below the killer bonus by halving the whole table.
+		if (fromHistory[to] >= HISTORY_LIMIT) {
+			for (int[] row : this.history) {
+				for (int i = 0; i < row.length; i++)
+					row[i] /= 2;
+			}
+		}
+	}
+
+	private void clearHeuristics () {
+		for (int[] plyKillers : this.killers) {
+			plyKillers[0] = 0;
+			plyKillers[1] = 0;
+		}
+		for (int[] row : this.history) {
+			for (int i = 0; i < row.length; i++)
+				row[i] = 0;
+		}
+	}
+}
@@ -6,10 +6,12 @@ import evaluators.BoardEvaluator;
 import pieces.Alliance;
 
 /**
+ * Chooses moves with a plain minimax search that visits every move to the full depth.
+ * 
  * @author Borna Sadeghi
  * @version Jul 27, 2019
  */
-public class MoveSelector {
+public class MoveSelector implements MoveStrategy {
 
 	private BoardEvaluator evaluator;
 	private int searchDepth;
@@ -19,9 +21,13 @@ public class MoveSelector {
 		this.evaluator = evaluator;
 	}
 
+	@Override
 	public Move bestMove (Board board) {
 		long currentTime = System.currentTimeMillis();
 		
+		// Search on a copy so the caller's board is left alone while moves are made and taken back.
+		board = new Board(board);
+		
 		Move bestMove = null;
 		
 		int curValue;
@@ -30,7 +36,9 @@ public class MoveSelector {
 			
 			int highest = Integer.MIN_VALUE;
 			for (Move move : board.getLegalMoves(Alliance.WHITE)) {
-				curValue = this.min(move.execute(), this.searchDepth-1);
+				board.makeMove(move);
+				curValue = this.min(board, this.searchDepth-1);
+				board.unmakeMove(move);
 				if (curValue > highest) {
 					highest = curValue;
 					bestMove = move;
@@ -40,7 +48,9 @@ public class MoveSelector {
 			
 			int lowest = Integer.MAX_VALUE;
 			for (Move move : board.getLegalMoves(Alliance.BLACK)) {
-				curValue = this.max(move.execute(), this.searchDepth-1);
+				board.makeMove(move);
+				curValue = this.max(board, this.searchDepth-1);
+				board.unmakeMove(move);
 				if (curValue < lowest) {
 					lowest = curValue;
 					bestMove = move;
@@ -63,7 +73,9 @@ public class MoveSelector {
 		int lowest = Integer.MAX_VALUE;
 
 		for (Move move : board.getLegalMoves(board.getCurrentPlayer())) {
-			int curValue = this.max(move.execute(), depth - 1);
+			board.makeMove(move);
+			int curValue = this.max(board, depth - 1);
+			board.unmakeMove(move);
 
 			if (curValue < lowest) {
 				lowest = curValue;
@@ -83,7 +95,9 @@ public class MoveSelector {
 		int highest = Integer.MIN_VALUE;
 
 		for (Move move : board.getLegalMoves(board.getCurrentPlayer())) {
-			int curValue = this.min(move.execute(), depth - 1);
+			board.makeMove(move);
+			int curValue = this.min(board, depth - 1);
+			board.unmakeMove(move);
 
 			if (curValue > highest) {
 				highest = curValue;
@@ -0,0 +1,16 @@
+package player.ai;
+
+import chess.Board;
+import chess.Move;
+
+/**
+ * A way of choosing the move to play on a board.
+ * 
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public interface MoveStrategy {
+
+	public Move bestMove (Board board);
+
+}
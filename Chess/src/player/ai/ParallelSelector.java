@@ -0,0 +1,240 @@
+package player.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.Board;
+import chess.Move;
+import evaluators.BoardEvaluator;
+import tablebase.Tablebase;
+
+/**
+ * Chooses moves with a Lazy SMP search: several threads run the same iterative deepening
+ * search at once, sharing one transposition table.
+ *
+ * Each thread has its own board, killer moves and history, so the only thing they share
+ * is what they write into the table. Threads that run ahead leave results there that make
+ * the others faster, and every other helper starts one ply deeper so the threads spread
+ * out over different depths. The calling thread is the main thread; the helpers are
+ * stopped as soon as it finishes.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class ParallelSelector implements MoveStrategy {
+
+	private final AlphaBetaSelector[] searchers;
+	private final TranspositionTable table;
+	private final int searchDepth;
+
+	private final ExecutorService helpers;
+
+	public ParallelSelector (int searchDepth, BoardEvaluator evaluator, int numThreads) {
+		this(searchDepth, evaluator, numThreads, new TranspositionTable());
+	}
+
+	/**
+	 * @param searchDepth - The depth searched by bestMove(Board).
+	 * @param evaluator - The evaluator shared by every thread, which must be thread safe.
+	 * @param numThreads - The number of threads to search with, including the calling thread.
+	 * @param table - The transposition table shared by every thread.
+	 */
+	public ParallelSelector (int searchDepth, BoardEvaluator evaluator, int numThreads, TranspositionTable table) {
+		if (numThreads < 1)
+			throw new RuntimeException("ParallelSelector needs at least one thread.");
+
+		this.searchDepth = searchDepth;
+		this.table = table;
+
+		this.searchers = new AlphaBetaSelector[numThreads];
+		for (int i = 0; i < numThreads; i++)
+			this.searchers[i] = new AlphaBetaSelector(searchDepth, evaluator, table);
+
+		this.helpers = numThreads == 1 ? null : Executors.newFixedThreadPool(numThreads - 1, runnable -> {
+			Thread thread = new Thread(runnable, "search-helper");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Search until the main thread reaches the fixed search depth.
+	 */
+	@Override
+	public Move bestMove (Board board) {
+		this.clearStop();
+		return this.search(board, this.searchDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Search deeper and deeper until the time limit runs out.
+	 *
+	 * @param board - The board to find a move on.
+	 * @param timeLimitMillis - How long the search may take, in milliseconds.
+	 * @return The best move found by the deepest search that finished in time.
+	 */
+	public Move bestMove (Board board, long timeLimitMillis) {
+		this.clearStop();
+		return this.search(board, AlphaBetaSelector.MAX_PLY - 1, System.currentTimeMillis() + timeLimitMillis, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Search deeper and deeper until any of the limits is reached, or the search is stopped.
+	 * Unlike the other bestMove methods, this does not clear an earlier stop, so a stop sent
+	 * while a search is being handed to another thread is not lost. Call clearStop before
+	 * handing it over.
+	 *
+	 * @param board - The board to find a move on.
+	 * @param maxDepth - The deepest iteration the main thread searches.
+	 * @param deadline - The time in milliseconds at which to stop, or Long.MAX_VALUE.
+	 * @param nodeLimit - The number of positions the main thread stops after, or Long.MAX_VALUE.
+	 * @return The best move found by the deepest search that finished in time.
+	 */
+	public Move bestMove (Board board, int maxDepth, long deadline, long nodeLimit) {
+		return this.search(board, Math.min(maxDepth, AlphaBetaSelector.MAX_PLY - 1), deadline, nodeLimit);
+	}
+
+	/**
+	 * @param listener - Told each time the main thread finishes an iteration, with the nodes
+	 *            of every thread, or null.
+	 */
+	public void setListener (SearchListener listener) {
+		if (listener == null) {
+			this.searchers[0].setListener(null);
+			return;
+		}
+		this.searchers[0].setListener((depth, score, nodes, pv, pvLength) -> listener.iterationFinished(depth, score,
+				this.getNodeCount(), pv, pvLength));
+	}
+
+	/**
+	 * @param tablebase - The endgame tables every thread looks positions up in, or null.
+	 */
+	public void setTablebase (Tablebase tablebase) {
+		for (AlphaBetaSelector searcher : this.searchers)
+			searcher.setTablebase(tablebase);
+	}
+
+	/**
+	 * Stop every thread of the current search as soon as possible.
+	 */
+	public void stop () {
+		for (AlphaBetaSelector searcher : this.searchers)
+			searcher.stop();
+	}
+
+	/**
+	 * Let the next search run.
+	 */
+	public void clearStop () {
+		for (AlphaBetaSelector searcher : this.searchers)
+			searcher.clearStop();
+	}
+
+	/**
+	 * Stop the helper threads for good. The selector cannot search after this.
+	 */
+	public void shutdown () {
+		if (this.helpers != null)
+			this.helpers.shutdownNow();
+	}
+
+	/**
+	 * @param board - The board to find a move on.
+	 * @param maxDepth - The deepest iteration the main thread searches.
+	 * @param deadline - The time in milliseconds at which to stop searching.
+	 * @param nodeLimit - The number of positions the main thread stops after.
+	 * @return The best move of the thread that finished the deepest iteration.
+	 */
+	private Move search (Board board, int maxDepth, long deadline, long nodeLimit) {
+		this.table.newSearch();
+
+		// Helpers keep going past the main thread's depth until they are stopped.
+		List<Future<Move>> results = new ArrayList<Future<Move>>();
+		for (int i = 1; i < this.searchers.length; i++) {
+			AlphaBetaSelector helper = this.searchers[i];
+			int firstDepth = 1 + (i & 1);
+			results.add(this.helpers.submit(() -> helper.search(board, firstDepth, AlphaBetaSelector.MAX_PLY - 1, deadline)));
+		}
+
+		AlphaBetaSelector main = this.searchers[0];
+		main.setNodeLimit(nodeLimit);
+		Move bestMove;
+		try {
+			bestMove = main.search(board, 1, maxDepth, deadline);
+		} finally {
+			main.setNodeLimit(Long.MAX_VALUE);
+		}
+		int bestDepth = main.getCompletedDepth();
+
+		this.stop();
+
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				Move helperMove = results.get(i).get();
+				int helperDepth = this.searchers[i + 1].getCompletedDepth();
+
+				if (helperMove != null && helperDepth > bestDepth) {
+					bestMove = helperMove;
+					bestDepth = helperDepth;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while waiting for search helpers.", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException("A search helper failed.", e.getCause());
+			}
+		}
+
+		return bestMove;
+	}
+
+	/**
+	 * @return The total number of positions visited by every thread in the last search.
+	 */
+	public long getNodeCount () {
+		long nodes = 0;
+		for (AlphaBetaSelector searcher : this.searchers)
+			nodes += searcher.getNodeCount();
+		return nodes;
+	}
+
+	/**
+	 * @return The score of the last iteration the main thread finished, for the side to move.
+	 */
+	public int getBestScore () {
+		return this.searchers[0].getBestScore();
+	}
+
+	/**
+	 * @return The principal variation of the last iteration the main thread finished.
+	 */
+	public int[] getPrincipalVariation () {
+		return this.searchers[0].getPrincipalVariation();
+	}
+
+	/**
+	 * @return The depth of the last iteration the main thread finished.
+	 */
+	public int getCompletedDepth () {
+		return this.searchers[0].getCompletedDepth();
+	}
+
+	/**
+	 * @return The number of threads searching, including the calling thread.
+	 */
+	public int getNumThreads () {
+		return this.searchers.length;
+	}
+
+	/**
+	 * @return The transposition table shared by every thread.
+	 */
+	public TranspositionTable getTranspositionTable () {
+		return this.table;
+	}
+}
@@ -0,0 +1,23 @@
+package player.ai;
+
+/**
+ * Told about the progress of a search as it runs, for example to report it to a GUI.
+ * 
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public interface SearchListener {
+
+	/**
+	 * Called on the searching thread each time an iteration of the search finishes.
+	 * 
+	 * @param depth - The depth of the iteration.
+	 * @param score - The score of the best move, for the side to move.
+	 * @param nodes - The number of positions visited so far.
+	 * @param pv - The principal variation as MoveCode ints. It is reused by the search, so
+	 *            it must not be kept.
+	 * @param pvLength - The number of moves in the principal variation.
+	 */
+	public void iterationFinished (int depth, int score, long nodes, int[] pv, int pvLength);
+
+}
@@ -0,0 +1,64 @@
+package player.ai;
+
+import chess.Board;
+import evaluators.BoardEvaluator;
+import evaluators.Evaluator_2;
+
+/**
+ * Measures how the Lazy SMP search scales with the number of threads.
+ *
+ * For 1, 2, 4, 8... threads, every benchmark position is searched to a fixed depth with a
+ * fresh transposition table, and the total time to depth and nodes per second are printed.
+ *
+ * Usage: SmpBenchmark [depth] [max threads] [table size in MB]
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class SmpBenchmark {
+
+	// Opening, middlegame and endgame positions.
+	private static final String[] POSITIONS = {
+			Board.DEFAULT_START_LAYOUT,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R",
+			"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8",
+			"6k1/5ppp/8/8/8/8/5PPP/3R2K1",
+	};
+
+	public static void main (String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int tableSizeMb = args.length > 2 ? Integer.parseInt(args[2]) : TranspositionTable.DEFAULT_SIZE_MB;
+
+		BoardEvaluator evaluator = new Evaluator_2();
+
+		System.out.format("Depth %d, %d positions, %d MB table\n", depth, POSITIONS.length, tableSizeMb);
+		System.out.format("%8s %12s %14s %12s %10s\n", "threads", "time (ms)", "nodes", "nodes/s", "speedup");
+
+		double singleThreadMillis = 0;
+
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			long nanos = 0, nodes = 0;
+
+			for (String layout : POSITIONS) {
+				ParallelSelector selector = new ParallelSelector(depth, evaluator, threads, new TranspositionTable(tableSizeMb));
+				Board board = new Board(layout);
+
+				long start = System.nanoTime();
+				selector.bestMove(board);
+				nanos += System.nanoTime() - start;
+				nodes += selector.getNodeCount();
+
+				selector.shutdown();
+			}
+
+			double millis = nanos / 1e6;
+			if (threads == 1)
+				singleThreadMillis = millis;
+
+			System.out.format("%8d %12.1f %14d %12.0f %9.2fx\n", threads, millis, nodes, nodes / (nanos / 1e9),
+					singleThreadMillis / millis);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package player.ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results, indexed by Zobrist key.
+ *
+ * Each entry is two longs: the packed data, and the key XORed with that data. An entry is
+ * only trusted when XORing its two halves gives back the key being probed, so entries torn
+ * by two threads writing at once are simply treated as misses. This lets any number of
+ * search threads share one table without locks.
+ *
+ * The data long holds the best move in bits 0-15, the depth in bits 16-23, the bound in
+ * bits 24-25, the search generation in bits 26-31 and the score in bits 32-63.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class TranspositionTable {
+
+	public static final int DEFAULT_SIZE_MB = 16;
+
+	// What the stored score says about the true score.
+	public static final int EXACT = 1, LOWER_BOUND = 2, UPPER_BOUND = 3;
+
+	// Returned by probe when there is no entry for the key.
+	public static final long MISS = 0L;
+
+	private static final int BYTES_PER_ENTRY = 16;
+	private static final int MAX_GENERATION = 63;
+
+	private final long[] entries;
+	private final int mask;
+
+	private int generation;
+
+	/**
+	 * @param sizeMb - The most memory the table may use, in megabytes. The number of entries
+	 *            is rounded down to a power of two.
+	 */
+	public TranspositionTable (int sizeMb) {
+		long maxEntries = Math.max(1, (long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY);
+		int numEntries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 29));
+
+		this.entries = new long[numEntries * 2];
+		this.mask = numEntries - 1;
+	}
+
+	public TranspositionTable () {
+		this(DEFAULT_SIZE_MB);
+	}
+
+	/**
+	 * @param key - The Zobrist key of a position.
+	 * @return The data stored for the position, or MISS.
+	 */
+	public long probe (long key) {
+		int index = ((int) key & this.mask) << 1;
+		long data = this.entries[index + 1];
+		if (data == MISS || (this.entries[index] ^ data) != key)
+			return MISS;
+		return data;
+	}
+
+	/**
+	 * Store a search result, replacing the current entry unless it holds a deeper search
+	 * of another position from this generation.
+	 *
+	 * @param key - The Zobrist key of the position.
+	 * @param move - The encoded best move, or 0 if there is none.
+	 * @param depth - The depth the position was searched to.
+	 * @param bound - EXACT, LOWER_BOUND or UPPER_BOUND.
+	 * @param score - The score of the position.
+	 */
+	public void store (long key, int move, int depth, int bound, int score) {
+		int index = ((int) key & this.mask) << 1;
+		long oldData = this.entries[index + 1];
+		boolean sameKey = (this.entries[index] ^ oldData) == key;
+
+		if (oldData != MISS && !sameKey && generationOf(oldData) == this.generation && depthOf(oldData) > depth)
+			return;
+
+		// Keep the old best move rather than forgetting it.
+		if (move == 0 && sameKey)
+			move = moveOf(oldData);
+
+		long data = (move & 0xFFFFL)
+				| (long) (Math.max(0, Math.min(depth, 0xFF))) << 16
+				| (long) bound << 24
+				| (long) this.generation << 26
+				| (long) score << 32;
+
+		this.entries[index] = key ^ data;
+		this.entries[index + 1] = data;
+	}
+
+	/**
+	 * Start a new search, so that entries left from earlier searches are replaced first.
+	 */
+	public void newSearch () {
+		this.generation = (this.generation + 1) & MAX_GENERATION;
+	}
+
+	/**
+	 * Remove every entry from the table.
+	 */
+	public void clear () {
+		Arrays.fill(this.entries, 0L);
+		this.generation = 0;
+	}
+
+	/**
+	 * @return The number of entries the table holds.
+	 */
+	public int capacity () {
+		return this.mask + 1;
+	}
+
+	/**
+	 * @return How full the table is in permille, estimated from the first thousand entries.
+	 */
+	public int hashfull () {
+		int sample = Math.min(1000, this.capacity()), used = 0;
+		for (int i = 0; i < sample; i++) {
+			long data = this.entries[(i << 1) + 1];
+			if (data != MISS && generationOf(data) == this.generation)
+				used++;
+		}
+		return used * 1000 / sample;
+	}
+
+	public static int moveOf (long data) {
+		return (int) (data & 0xFFFF);
+	}
+
+	public static int depthOf (long data) {
+		return (int) ((data >>> 16) & 0xFF);
+	}
+
+	public static int boundOf (long data) {
+		return (int) ((data >>> 24) & 0x3);
+	}
+
+	public static int scoreOf (long data) {
+		return (int) (data >> 32);
+	}
+
+	private static int generationOf (long data) {
+		return (int) ((data >>> 26) & MAX_GENERATION);
+	}
+}
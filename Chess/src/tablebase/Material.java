@@ -0,0 +1,412 @@
+package tablebase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import chess.PieceGrid;
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * The pieces of an endgame, such as KQvKR, and the numbering of its positions in a table.
+ *
+ * The pieces are kept in a fixed order, white's and then black's, each side's king first
+ * and the rest in PieceType order, and a position is given by the square of each piece in
+ * that order. The white king is always the first piece.
+ *
+ * Positions that are mirror images of each other have the same value, so only one of each
+ * set is numbered. Without pawns, the board is turned and reflected until the white king is
+ * in the triangle a1-d1-d4, and if the king is on the diagonal, until the first piece off
+ * the diagonal is below it. With pawns, the board can only be reflected from side to side,
+ * which puts the white king on files a to d. Pawns are numbered on the 48 squares they can
+ * stand on.
+ *
+ * A table is only made for one of an endgame and its colour-reversed twin, with the
+ * stronger side as white. Positions of the other are looked up with the colours swapped.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public final class Material {
+
+	public static final int MAX_PIECES = 5;
+
+	// Reflections of the board, applied in this order.
+	private static final int FLIP_FILES = 1, FLIP_RANKS = 2, FLIP_DIAGONAL = 4;
+
+	// The squares of the triangle a1-d1-d4, numbered, and the number of each square.
+	private static final int[] TRIANGLE = { 0, 1, 2, 3, 9, 10, 11, 18, 19, 27 };
+	private static final int[] TRIANGLE_INDEX = new int[64];
+
+	static {
+		Arrays.fill(TRIANGLE_INDEX, -1);
+		for (int i = 0; i < TRIANGLE.length; i++)
+			TRIANGLE_INDEX[TRIANGLE[i]] = i;
+	}
+
+	private final int[] codes;
+	private final int numWhite;
+	private final boolean hasPawns;
+	private final String name;
+
+	// The number of values each piece's square can take, and the number of positions.
+	private final int[] radix;
+	private final int size;
+
+	private Material (int[] codes) {
+		this.codes = codes;
+
+		int numWhite = 0;
+		boolean hasPawns = false;
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < codes.length; i++) {
+			Alliance alliance = PieceGrid.allianceOf(codes[i]);
+			if (alliance == Alliance.WHITE)
+				numWhite++;
+			else if (i > 0 && PieceGrid.allianceOf(codes[i - 1]) == Alliance.WHITE)
+				name.append('v');
+			hasPawns |= PieceGrid.pieceTypeOf(codes[i]) == PieceType.PAWN;
+			name.append(PieceGrid.pieceTypeOf(codes[i]));
+		}
+		this.numWhite = numWhite;
+		this.hasPawns = hasPawns;
+		this.name = name.toString();
+
+		this.radix = new int[codes.length];
+		long size = 2;
+		for (int i = 0; i < codes.length; i++) {
+			if (i == 0)
+				this.radix[i] = hasPawns ? 32 : TRIANGLE.length;
+			else
+				this.radix[i] = PieceGrid.pieceTypeOf(codes[i]) == PieceType.PAWN ? 48 : 64;
+			size *= this.radix[i];
+		}
+		if (size > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many positions to number: " + this.name);
+		this.size = (int) size;
+	}
+
+	/**
+	 * @param name - The pieces of each side, such as KQvKR.
+	 * @return The material named.
+	 */
+	public static Material of (String name) {
+		int separator = name.indexOf('v');
+		if (separator < 0)
+			throw new IllegalArgumentException("Invalid material \"" + name + "\": missing 'v' between the sides.");
+
+		int[] codes = new int[name.length() - 1];
+		int count = 0;
+		for (int i = 0; i < name.length(); i++) {
+			if (i == separator)
+				continue;
+			Alliance alliance = i < separator ? Alliance.WHITE : Alliance.BLACK;
+			codes[count++] = PieceGrid.pieceCode(parseType(name, name.charAt(i)), alliance);
+		}
+		return of(codes, count);
+	}
+
+	/**
+	 * @param codes - The piece codes of the pieces, in any order.
+	 * @param count - The number of pieces.
+	 * @return The material of the pieces, which may not be the one its table is made for.
+	 */
+	public static Material of (int[] codes, int count) {
+		int[] sorted = Arrays.copyOf(codes, count);
+		Arrays.sort(sorted);
+
+		int whiteKings = 0, blackKings = 0;
+		for (int code : sorted) {
+			if (code == PieceGrid.pieceCode(PieceType.KING, Alliance.WHITE))
+				whiteKings++;
+			else if (code == PieceGrid.pieceCode(PieceType.KING, Alliance.BLACK))
+				blackKings++;
+		}
+		if (whiteKings != 1 || blackKings != 1 || count > MAX_PIECES)
+			throw new IllegalArgumentException("Material needs one king of each side and at most " + MAX_PIECES + " pieces.");
+
+		return new Material(sorted);
+	}
+
+	/**
+	 * @param pieces - The number of pieces, kings included.
+	 * @return Every material with that many pieces that a table is made for.
+	 */
+	public static List<Material> all (int pieces) {
+		List<Material> materials = new ArrayList<>();
+		int[] codes = new int[pieces];
+		codes[0] = PieceGrid.pieceCode(PieceType.KING, Alliance.WHITE);
+		codes[1] = PieceGrid.pieceCode(PieceType.KING, Alliance.BLACK);
+		addAll(codes, 2, 0, materials);
+		return materials;
+	}
+
+	/**
+	 * Fill in the remaining pieces in increasing code order, so each set is listed once.
+	 */
+	private static void addAll (int[] codes, int filled, int lowest, List<Material> materials) {
+		if (filled == codes.length) {
+			Material material = of(codes, codes.length);
+			if (material.isCanonical())
+				materials.add(material);
+			return;
+		}
+
+		for (int code = lowest; code < PieceGrid.NUM_PIECE_CODES; code++) {
+			if (PieceGrid.pieceTypeOf(code) == PieceType.KING)
+				continue;
+			codes[filled] = code;
+			addAll(codes, filled + 1, code, materials);
+		}
+	}
+
+	public String getName () {
+		return this.name;
+	}
+
+	public int getPieceCount () {
+		return this.codes.length;
+	}
+
+	/**
+	 * @param slot - The place of a piece in the fixed order.
+	 * @return The piece code of the piece.
+	 */
+	public int getCode (int slot) {
+		return this.codes[slot];
+	}
+
+	/**
+	 * @return The place of the black king in the fixed order.
+	 */
+	public int getBlackKingSlot () {
+		return this.numWhite;
+	}
+
+	public boolean hasPawns () {
+		return this.hasPawns;
+	}
+
+	/**
+	 * @return True if only the kings are left, so every position is drawn.
+	 */
+	public boolean isBareKings () {
+		return this.codes.length == 2;
+	}
+
+	/**
+	 * @return The number of positions numbered, with either side to move.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * @return True if this is the one of the material and its colour-reversed twin that a
+	 *         table is made for.
+	 */
+	public boolean isCanonical () {
+		return this.compareSides() >= 0;
+	}
+
+	/**
+	 * @return The material with the colours swapped.
+	 */
+	public Material flipped () {
+		int[] codes = new int[this.codes.length];
+		for (int i = 0; i < codes.length; i++)
+			codes[i] = (this.codes[i] + PieceGrid.NUM_PIECE_TYPES) % PieceGrid.NUM_PIECE_CODES;
+		return of(codes, codes.length);
+	}
+
+	/**
+	 * @return The materials that captures and promotions lead to, that tables are made for.
+	 */
+	public List<Material> getDependencies () {
+		Set<String> names = new LinkedHashSet<>();
+		List<Material> dependencies = new ArrayList<>();
+		int[] codes = new int[this.codes.length];
+
+		for (int i = 0; i < this.codes.length; i++) {
+			PieceType type = PieceGrid.pieceTypeOf(this.codes[i]);
+			if (type == PieceType.KING)
+				continue;
+
+			// Captures of the piece.
+			int count = 0;
+			for (int j = 0; j < this.codes.length; j++) {
+				if (j != i)
+					codes[count++] = this.codes[j];
+			}
+			addDependency(of(codes, count), names, dependencies);
+
+			// Promotions of the pawn, which may capture as well.
+			if (type == PieceType.PAWN) {
+				Alliance alliance = PieceGrid.allianceOf(this.codes[i]);
+				for (PieceType promotion : new PieceType[] { PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT }) {
+					System.arraycopy(this.codes, 0, codes, 0, this.codes.length);
+					codes[i] = PieceGrid.pieceCode(promotion, alliance);
+					Material promoted = of(codes, this.codes.length);
+					addDependency(promoted, names, dependencies);
+					for (Material captured : promoted.getCaptures(alliance.opponent()))
+						addDependency(captured, names, dependencies);
+				}
+			}
+		}
+		return dependencies;
+	}
+
+	/**
+	 * @return The materials left by capturing each piece of one side other than the king.
+	 */
+	private List<Material> getCaptures (Alliance victim) {
+		List<Material> captures = new ArrayList<>();
+		int[] codes = new int[this.codes.length];
+		for (int i = 0; i < this.codes.length; i++) {
+			if (PieceGrid.allianceOf(this.codes[i]) != victim || PieceGrid.pieceTypeOf(this.codes[i]) == PieceType.KING)
+				continue;
+			int count = 0;
+			for (int j = 0; j < this.codes.length; j++) {
+				if (j != i)
+					codes[count++] = this.codes[j];
+			}
+			captures.add(of(codes, count));
+		}
+		return captures;
+	}
+
+	private static void addDependency (Material material, Set<String> names, List<Material> dependencies) {
+		if (!material.isCanonical())
+			material = material.flipped();
+		if (!material.isBareKings() && names.add(material.name))
+			dependencies.add(material);
+	}
+
+	/**
+	 * Number a position, reflecting it as needed.
+	 *
+	 * @param squares - The square of each piece, in the fixed order.
+	 * @param toMove - The side to move.
+	 * @return The number of the position, from 0 to size() - 1.
+	 */
+	public int index (int[] squares, Alliance toMove) {
+		int transform = this.transform(squares);
+
+		int king = reflect(squares[0], transform);
+		int index = this.hasPawns ? (king >>> 3) * 4 + (king & 7) : TRIANGLE_INDEX[king];
+		for (int i = 1; i < this.codes.length; i++) {
+			int square = reflect(squares[i], transform);
+			index = index * this.radix[i] + (this.radix[i] == 48 ? square - 8 : square);
+		}
+		return index * 2 + (toMove == Alliance.WHITE ? 0 : 1);
+	}
+
+	/**
+	 * Find the position with a number. Some numbers are not given to any position, if its
+	 * pieces overlap or it is a reflection of a position numbered otherwise, so the position
+	 * found should be numbered again to check it.
+	 *
+	 * @param index - The number of the position.
+	 * @param squares - Filled with the square of each piece, in the fixed order.
+	 * @return The side to move.
+	 */
+	public Alliance decode (int index, int[] squares) {
+		Alliance toMove = (index & 1) == 0 ? Alliance.WHITE : Alliance.BLACK;
+		index >>>= 1;
+
+		for (int i = this.codes.length - 1; i > 0; i--) {
+			int digit = index % this.radix[i];
+			squares[i] = this.radix[i] == 48 ? digit + 8 : digit;
+			index /= this.radix[i];
+		}
+		squares[0] = this.hasPawns ? (index / 4) * 8 + index % 4 : TRIANGLE[index];
+		return toMove;
+	}
+
+	/**
+	 * @return The reflections that put the position in its numbered form.
+	 */
+	private int transform (int[] squares) {
+		int king = squares[0];
+		int transform = 0;
+		if ((king & 7) > 3)
+			transform |= FLIP_FILES;
+		if (this.hasPawns)
+			return transform;
+
+		if ((king >>> 3) > 3)
+			transform |= FLIP_RANKS;
+		king = reflect(king, transform);
+
+		int file = king & 7, rank = king >>> 3;
+		if (rank > file)
+			return transform | FLIP_DIAGONAL;
+		if (rank == file) {
+			for (int i = 1; i < this.codes.length; i++) {
+				int square = reflect(squares[i], transform);
+				file = square & 7;
+				rank = square >>> 3;
+				if (rank > file)
+					return transform | FLIP_DIAGONAL;
+				if (rank < file)
+					break;
+			}
+		}
+		return transform;
+	}
+
+	private static int reflect (int square, int transform) {
+		if ((transform & FLIP_FILES) != 0)
+			square ^= 7;
+		if ((transform & FLIP_RANKS) != 0)
+			square ^= 56;
+		if ((transform & FLIP_DIAGONAL) != 0)
+			square = ((square & 7) << 3) | (square >>> 3);
+		return square;
+	}
+
+	/**
+	 * @return Positive if white has the stronger pieces, negative if black has, and 0 if
+	 *         they have the same.
+	 */
+	private int compareSides () {
+		int whiteValue = 0, blackValue = 0;
+		for (int code : this.codes) {
+			int value = PieceGrid.pieceTypeOf(code).getValue();
+			if (PieceGrid.allianceOf(code) == Alliance.WHITE)
+				whiteValue += value;
+			else
+				blackValue += value;
+		}
+		if (whiteValue != blackValue)
+			return Integer.compare(whiteValue, blackValue);
+
+		// Otherwise the side with more pieces, or the more valuable first piece, and so on.
+		int numBlack = this.codes.length - this.numWhite;
+		if (this.numWhite != numBlack)
+			return Integer.compare(this.numWhite, numBlack);
+		for (int i = 1; i < this.numWhite; i++) {
+			int white = PieceGrid.pieceTypeOf(this.codes[i]).ordinal();
+			int black = PieceGrid.pieceTypeOf(this.codes[this.numWhite + i]).ordinal();
+			if (white != black)
+				return Integer.compare(black, white);
+		}
+		return 0;
+	}
+
+	private static PieceType parseType (String name, char letter) {
+		for (PieceType type : PieceType.values()) {
+			if (type != PieceType.NO_PIECE && type.toString().charAt(0) == Character.toUpperCase(letter))
+				return type;
+		}
+		throw new IllegalArgumentException("Invalid material \"" + name + "\": unknown piece " + letter + ".");
+	}
+
+	@Override
+	public String toString () {
+		return this.name;
+	}
+}
@@ -0,0 +1,313 @@
+package tablebase;
+
+import chess.Attacks;
+import chess.Bitboard;
+import chess.PieceGrid;
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * A position of one material, held as the square of each piece, with the moves and
+ * unmoves that tablebase generation needs.
+ *
+ * Moves and unmoves are made in place and handed to a visitor, then taken back. A captured
+ * piece is left in its slot with no square. Castling and en passant are not part of
+ * tablebase positions.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+class TablePosition {
+
+	// The square of a captured piece.
+	static final int CAPTURED = -1;
+
+	private static final PieceType[] PROMOTIONS = { PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT };
+
+	/**
+	 * Told of each position reached by a move or unmove, while it is made.
+	 */
+	interface Visitor {
+
+		/**
+		 * @return False to stop visiting.
+		 */
+		public boolean visit (TablePosition position);
+
+	}
+
+	final Material material;
+	final int[] squares;
+	Alliance toMove;
+
+	// The piece taken, and what the moving pawn became, by the move being visited.
+	int capturedSlot = CAPTURED;
+	int promotedSlot = CAPTURED;
+	PieceType promotion;
+
+	private final int[] codes;
+	private final PieceType[] types;
+	private final Alliance[] alliances;
+
+	TablePosition (Material material) {
+		this.material = material;
+		int count = material.getPieceCount();
+		this.squares = new int[count];
+		this.codes = new int[count];
+		this.types = new PieceType[count];
+		this.alliances = new Alliance[count];
+		for (int i = 0; i < count; i++) {
+			this.codes[i] = material.getCode(i);
+			this.types[i] = PieceGrid.pieceTypeOf(this.codes[i]);
+			this.alliances[i] = PieceGrid.allianceOf(this.codes[i]);
+		}
+	}
+
+	/**
+	 * Set up the position with a number.
+	 *
+	 * @return False if no legal position has the number: its pieces overlap, the side that
+	 *         just moved is in check, or the number belongs to a reflection of it.
+	 */
+	boolean load (int index) {
+		this.toMove = this.material.decode(index, this.squares);
+
+		long occupied = 0;
+		for (int square : this.squares) {
+			if ((occupied & Bitboard.bit(square)) != 0)
+				return false;
+			occupied |= Bitboard.bit(square);
+		}
+		if (this.material.index(this.squares, this.toMove) != index)
+			return false;
+		return !this.inCheck(this.toMove.opponent());
+	}
+
+	/**
+	 * @return The number of the position.
+	 */
+	int index () {
+		return this.material.index(this.squares, this.toMove);
+	}
+
+	/**
+	 * @return The piece codes and squares of the pieces left after the move being visited,
+	 *         with a promoted pawn as its new piece, and the number of them.
+	 */
+	int getPieces (int[] codes, int[] squares) {
+		int count = 0;
+		for (int i = 0; i < this.squares.length; i++) {
+			if (this.squares[i] == CAPTURED)
+				continue;
+			codes[count] = i == this.promotedSlot ? PieceGrid.pieceCode(this.promotion, this.alliances[i]) : this.codes[i];
+			squares[count] = this.squares[i];
+			count++;
+		}
+		return count;
+	}
+
+	boolean inCheck (Alliance alliance) {
+		int king = this.squares[alliance == Alliance.WHITE ? 0 : this.material.getBlackKingSlot()];
+		return this.isAttacked(king, alliance.opponent(), this.occupied());
+	}
+
+	/**
+	 * Visit the position after each legal move of the side to move.
+	 *
+	 * @return False if the visitor stopped early.
+	 */
+	boolean forEachMove (Visitor visitor) {
+		Alliance player = this.toMove;
+		long occupied = this.occupied();
+		long own = this.occupied(player);
+
+		for (int i = 0; i < this.squares.length; i++) {
+			int from = this.squares[i];
+			if (this.alliances[i] != player || from == CAPTURED)
+				continue;
+
+			if (this.types[i] == PieceType.PAWN) {
+				if (!this.forEachPawnMove(i, from, occupied, visitor))
+					return false;
+				continue;
+			}
+
+			long targets = attacks(this.types[i], player, from, occupied) & ~own;
+			while (targets != 0) {
+				int to = Bitboard.lowestSquare(targets);
+				targets = Bitboard.popLowest(targets);
+				if (!this.tryMove(i, from, to, null, visitor))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean forEachPawnMove (int slot, int from, long occupied, Visitor visitor) {
+		Alliance player = this.alliances[slot];
+		int forward = player == Alliance.WHITE ? 8 : -8;
+		int startRank = player == Alliance.WHITE ? 1 : 6;
+
+		long targets = Attacks.pawn(player, from) & this.occupied(player.opponent());
+		int push = from + forward;
+		if ((occupied & Bitboard.bit(push)) == 0) {
+			targets |= Bitboard.bit(push);
+			if ((from >>> 3) == startRank && (occupied & Bitboard.bit(push + forward)) == 0)
+				targets |= Bitboard.bit(push + forward);
+		}
+
+		while (targets != 0) {
+			int to = Bitboard.lowestSquare(targets);
+			targets = Bitboard.popLowest(targets);
+
+			int rank = to >>> 3;
+			if (rank == 0 || rank == 7) {
+				for (PieceType promotion : PROMOTIONS) {
+					if (!this.tryMove(slot, from, to, promotion, visitor))
+						return false;
+				}
+			} else if (!this.tryMove(slot, from, to, null, visitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Make a move and visit it if it does not leave the mover in check.
+	 */
+	private boolean tryMove (int slot, int from, int to, PieceType promotion, Visitor visitor) {
+		Alliance player = this.toMove;
+		int captured = this.slotAt(to);
+
+		this.squares[slot] = to;
+		if (captured != CAPTURED)
+			this.squares[captured] = CAPTURED;
+
+		boolean keepGoing = true;
+		if (!this.inCheck(player)) {
+			this.toMove = player.opponent();
+			this.capturedSlot = captured;
+			this.promotedSlot = promotion == null ? CAPTURED : slot;
+			this.promotion = promotion;
+
+			keepGoing = visitor.visit(this);
+
+			this.toMove = player;
+			this.capturedSlot = CAPTURED;
+			this.promotedSlot = CAPTURED;
+			this.promotion = null;
+		}
+
+		this.squares[slot] = from;
+		if (captured != CAPTURED)
+			this.squares[captured] = to;
+		return keepGoing;
+	}
+
+	/**
+	 * Visit each legal position of the same material from which the side that just moved
+	 * could have reached this one, by a move that captures nothing and promotes nothing.
+	 */
+	boolean forEachUnmove (Visitor visitor) {
+		Alliance mover = this.toMove.opponent();
+		long occupied = this.occupied();
+
+		for (int i = 0; i < this.squares.length; i++) {
+			if (this.alliances[i] != mover)
+				continue;
+			int to = this.squares[i];
+
+			long sources;
+			if (this.types[i] == PieceType.PAWN) {
+				int backward = mover == Alliance.WHITE ? -8 : 8;
+				int rank = mover == Alliance.WHITE ? to >>> 3 : 7 - (to >>> 3);
+				sources = 0;
+				// A pawn cannot have come from its first rank, and comes two squares only from its second.
+				if (rank >= 2 && (occupied & Bitboard.bit(to + backward)) == 0) {
+					sources |= Bitboard.bit(to + backward);
+					if (rank == 3 && (occupied & Bitboard.bit(to + 2 * backward)) == 0)
+						sources |= Bitboard.bit(to + 2 * backward);
+				}
+			} else {
+				sources = attacks(this.types[i], mover, to, occupied) & ~occupied;
+			}
+
+			while (sources != 0) {
+				int from = Bitboard.lowestSquare(sources);
+				sources = Bitboard.popLowest(sources);
+
+				this.squares[i] = from;
+				this.toMove = mover;
+
+				// The side that is not to move before the move may not be in check.
+				boolean keepGoing = this.inCheck(mover.opponent()) || visitor.visit(this);
+
+				this.squares[i] = to;
+				this.toMove = mover.opponent();
+				if (!keepGoing)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private long occupied () {
+		long occupied = 0;
+		for (int square : this.squares) {
+			if (square != CAPTURED)
+				occupied |= Bitboard.bit(square);
+		}
+		return occupied;
+	}
+
+	private long occupied (Alliance alliance) {
+		long occupied = 0;
+		for (int i = 0; i < this.squares.length; i++) {
+			if (this.alliances[i] == alliance && this.squares[i] != CAPTURED)
+				occupied |= Bitboard.bit(this.squares[i]);
+		}
+		return occupied;
+	}
+
+	private int slotAt (int square) {
+		for (int i = 0; i < this.squares.length; i++) {
+			if (this.squares[i] == square)
+				return i;
+		}
+		return CAPTURED;
+	}
+
+	private boolean isAttacked (int square, Alliance byAlliance, long occupied) {
+		long target = Bitboard.bit(square);
+		for (int i = 0; i < this.squares.length; i++) {
+			if (this.alliances[i] != byAlliance || this.squares[i] == CAPTURED)
+				continue;
+			if ((attacks(this.types[i], byAlliance, this.squares[i], occupied) & target) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return The squares a piece attacks, which for a pawn are the squares it captures on.
+	 */
+	private static long attacks (PieceType type, Alliance alliance, int square, long occupied) {
+		switch (type) {
+		case KING:
+			return Attacks.king(square);
+		case QUEEN:
+			return Attacks.queen(square, occupied);
+		case ROOK:
+			return Attacks.rook(square, occupied);
+		case BISHOP:
+			return Attacks.bishop(square, occupied);
+		case KNIGHT:
+			return Attacks.knight(square);
+		case PAWN:
+			return Attacks.pawn(alliance, square);
+		default:
+			return 0;
+		}
+	}
+}
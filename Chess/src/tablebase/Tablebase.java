@@ -0,0 +1,395 @@
+package tablebase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import chess.Attacks;
+import chess.Bitboard;
+import chess.Board;
+import chess.MoveCode;
+import chess.MoveGenerator;
+import chess.PieceGrid;
+import pieces.Alliance;
+import pieces.PieceType;
+
+/**
+ * Endgame tablebases made by TablebaseGenerator, looked up straight from their files.
+ *
+ * Each material has two tables. The WDL table says in two bits whether each position is
+ * won, drawn or lost for the side to move, and is what the search looks at: it is small,
+ * so more of it stays in memory. The DTM table gives in a byte the number of moves to mate,
+ * which is what is needed to play a won ending out, or a lost one as long as possible.
+ *
+ * Tables are memory-mapped the first time a position of their material is looked up, so
+ * a lookup is a few index calculations and a read. Only positions without castling rights
+ * or a possible en passant capture are in the tables. The fifty move rule is not taken
+ * into account.
+ *
+ * Lookups may be made from any number of threads. A lookup works in a Buffers of the
+ * caller's, so a search that keeps one for each thread does not allocate as it probes.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class Tablebase implements Closeable {
+
+	// Results of WDL lookups, for the side to move.
+	public static final int WIN = 1, DRAW = 0, LOSS = -1;
+
+	// Returned by lookups of positions not in the tables.
+	public static final int UNKNOWN = Integer.MIN_VALUE;
+
+	// DTM lookups give MATE minus the plies to mate for a won position, and the negative of
+	// that for a lost one, the same way the search scores mates.
+	public static final int MATE = 1000;
+
+	static final String WDL_EXTENSION = ".wdl", DTM_EXTENSION = ".dtm";
+
+	// Table files start with a header of the magic number, the kind of table, and the
+	// number of positions in it.
+	static final int MAGIC = 0x53505442;
+	static final int WDL_FORMAT = 1, DTM_FORMAT = 2;
+	static final int HEADER_SIZE = 16;
+
+	// The two bit values of a WDL table.
+	static final int WDL_DRAW = 0, WDL_WIN = 1, WDL_LOSS = 2, WDL_ILLEGAL = 3;
+
+	// A material whose tables are not in the directory.
+	private static final Table MISSING = new Table(null, null, null, false);
+
+	// Materials are keyed by their sorted piece codes after the white king, which always
+	// sorts first, as digits in base NUM_PIECE_CODES. The first of those digits is never 0,
+	// so materials with different numbers of pieces get different keys.
+	private static final int NUM_KEYS = (int) Math.pow(PieceGrid.NUM_PIECE_CODES, Material.MAX_PIECES - 1);
+	private static final int WHITE_KING = PieceGrid.pieceCode(PieceType.KING, Alliance.WHITE);
+
+	private final Path directory;
+	private final int maxPieces;
+
+	// The tables of each material, by its key, or null until a position of it is looked up.
+	private final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<>(NUM_KEYS);
+
+	/**
+	 * The working space of a lookup. One may be used by one thread at a time.
+	 */
+	public static final class Buffers {
+		private final int[] codes = new int[Material.MAX_PIECES], squares = new int[Material.MAX_PIECES];
+		private final int[] pieces = new int[Material.MAX_PIECES], tableSquares = new int[Material.MAX_PIECES];
+	}
+
+	/**
+	 * @param directory - The directory the table files are in.
+	 */
+	public Tablebase (Path directory) throws IOException {
+		if (!Files.isDirectory(directory))
+			throw new IOException("Not a directory: " + directory);
+		this.directory = directory;
+
+		int maxPieces = 2;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + WDL_EXTENSION)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				try {
+					Material material = Material.of(name.substring(0, name.length() - WDL_EXTENSION.length()));
+					maxPieces = Math.max(maxPieces, material.getPieceCount());
+				} catch (IllegalArgumentException e) {
+					// Not a table.
+				}
+			}
+		}
+		this.maxPieces = maxPieces;
+	}
+
+	/**
+	 * @return The most pieces of any table in the directory when it was opened.
+	 */
+	public int getMaxPieces () {
+		return this.maxPieces;
+	}
+
+	/**
+	 * @param board
+	 * @return WIN, DRAW or LOSS for the side to move, or UNKNOWN if the position is not in
+	 *         the tables.
+	 */
+	public int probeWdl (Board board) {
+		return this.probeWdl(board, new Buffers());
+	}
+
+	/**
+	 * @param board
+	 * @param buffers - The working space of the calling thread.
+	 * @return WIN, DRAW or LOSS for the side to move, or UNKNOWN if the position is not in
+	 *         the tables.
+	 */
+	public int probeWdl (Board board, Buffers buffers) {
+		int count = gather(board, buffers.codes, buffers.squares);
+		if (count < 0)
+			return UNKNOWN;
+
+		int wdl = this.probe(buffers.codes, buffers.squares, count, board.getCurrentPlayer(), false, buffers);
+		switch (wdl) {
+		case WDL_WIN:
+			return WIN;
+		case WDL_LOSS:
+			return LOSS;
+		case WDL_DRAW:
+			return DRAW;
+		default:
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * @param board
+	 * @return MATE minus the plies to mate if the side to move wins, the negative of that if
+	 *         it loses, 0 for a draw, or UNKNOWN if the position is not in the tables.
+	 */
+	public int probeDtm (Board board) {
+		return this.probeDtm(board, new Buffers());
+	}
+
+	/**
+	 * @param board
+	 * @param buffers - The working space of the calling thread.
+	 * @return As probeDtm(Board).
+	 */
+	public int probeDtm (Board board, Buffers buffers) {
+		int count = gather(board, buffers.codes, buffers.squares);
+		if (count < 0)
+			return UNKNOWN;
+		return this.probe(buffers.codes, buffers.squares, count, board.getCurrentPlayer(), true, buffers);
+	}
+
+	/**
+	 * Find the move that mates soonest if the position is won, holds the draw if it is
+	 * drawn, or puts off mate the longest if it is lost.
+	 *
+	 * @param board - The board to find a move on. It is left as it was found.
+	 * @return The move, or MoveCode.NONE if the position or one of the positions after
+	 *         its moves is not in the tables.
+	 */
+	public int bestMove (Board board) {
+		Buffers buffers = new Buffers();
+		if (this.probeDtm(board, buffers) == UNKNOWN)
+			return MoveCode.NONE;
+
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+
+		int bestMove = MoveCode.NONE, bestValue = -MATE - 1;
+		for (int i = 0; i < count; i++) {
+			board.makeMove(moves[i]);
+			int result = this.probeDtm(board, buffers);
+			board.unmakeMove(moves[i]);
+			if (result == UNKNOWN)
+				return MoveCode.NONE;
+
+			// The opponent's result, one ply further from mate for this side.
+			int value = result > 0 ? -(result - 1) : result < 0 ? -(result + 1) : 0;
+			if (value > bestValue) {
+				bestValue = value;
+				bestMove = moves[i];
+			}
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Look up a position given as a list of pieces.
+	 *
+	 * @param codes - The piece code of each piece, in any order.
+	 * @param squares - The square of each piece.
+	 * @param count - The number of pieces.
+	 * @param toMove - The side to move.
+	 * @param dtm - True for the DTM result, as probeDtm gives it, or false for the two bit
+	 *            WDL value.
+	 * @param buffers - The working space of the calling thread.
+	 * @return The result, or UNKNOWN if the material has no table here.
+	 */
+	int probe (int[] codes, int[] squares, int count, Alliance toMove, boolean dtm, Buffers buffers) {
+		// Sort the pieces into the fixed order, each packed as its code and square.
+		int[] pieces = buffers.pieces;
+		for (int i = 0; i < count; i++)
+			pieces[i] = codes[i] << 6 | squares[i];
+		sort(pieces, count);
+		if ((pieces[0] >>> 6) != WHITE_KING)
+			return UNKNOWN;
+
+		int key = 0;
+		for (int i = 1; i < count; i++)
+			key = key * PieceGrid.NUM_PIECE_CODES + (pieces[i] >>> 6);
+
+		Table table = this.tables.get(key);
+		if (table == null) {
+			// Two threads may open the same tables at once, which does no harm.
+			table = this.open(pieces, count);
+			this.tables.set(key, table);
+		}
+		if (table == MISSING)
+			return UNKNOWN;
+		if (table.material == null)
+			return dtm ? 0 : WDL_DRAW;
+
+		// Look up the colour-reversed position in the table of the twin material.
+		if (table.flipped) {
+			for (int i = 0; i < count; i++) {
+				int code = ((pieces[i] >>> 6) + PieceGrid.NUM_PIECE_TYPES) % PieceGrid.NUM_PIECE_CODES;
+				pieces[i] = code << 6 | ((pieces[i] & 63) ^ 56);
+			}
+			sort(pieces, count);
+			toMove = toMove.opponent();
+		}
+
+		int[] tableSquares = buffers.tableSquares;
+		for (int i = 0; i < count; i++)
+			tableSquares[i] = pieces[i] & 63;
+		int index = table.material.index(tableSquares, toMove);
+
+		int wdl = (table.wdl.get(HEADER_SIZE + (index >>> 2)) >>> ((index & 3) * 2)) & 3;
+		if (!dtm)
+			return wdl;
+
+		if (wdl == WDL_ILLEGAL || table.dtm == null)
+			return UNKNOWN;
+		int moves = table.dtm.get(HEADER_SIZE + index) & 0xFF;
+		switch (wdl) {
+		case WDL_WIN:
+			return MATE - (2 * moves - 1);
+		case WDL_LOSS:
+			return -(MATE - 2 * moves);
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Forget the mapped tables. The mappings themselves are released when they are no longer
+	 * reachable.
+	 */
+	@Override
+	public void close () {
+		for (int i = 0; i < NUM_KEYS; i++)
+			this.tables.set(i, null);
+	}
+
+	/**
+	 * Map the tables of a material, or its twin's.
+	 *
+	 * @param pieces - The sorted pieces of a position of the material.
+	 * @param count - The number of pieces.
+	 */
+	private Table open (int[] pieces, int count) {
+		int[] codes = new int[count];
+		for (int i = 0; i < count; i++)
+			codes[i] = pieces[i] >>> 6;
+
+		Material material = Material.of(codes, count);
+		if (material.isBareKings())
+			return new Table(null, null, null, false);
+
+		boolean flipped = !material.isCanonical();
+		if (flipped)
+			material = material.flipped();
+
+		try {
+			Path wdlFile = this.directory.resolve(material.getName() + WDL_EXTENSION);
+			Path dtmFile = this.directory.resolve(material.getName() + DTM_EXTENSION);
+			if (!Files.exists(wdlFile))
+				return MISSING;
+
+			MappedByteBuffer wdl = map(wdlFile, material, WDL_FORMAT, (material.size() + 3) / 4);
+			MappedByteBuffer dtm = Files.exists(dtmFile) ? map(dtmFile, material, DTM_FORMAT, material.size()) : null;
+			return new Table(material, wdl, dtm, flipped);
+		} catch (IOException e) {
+			return MISSING;
+		}
+	}
+
+	private static MappedByteBuffer map (Path file, Material material, int format, long dataSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0)
+					break;
+			}
+			header.flip();
+
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != format
+					|| header.getLong() != material.size() || channel.size() != HEADER_SIZE + dataSize)
+				throw new IOException("Not a " + material + " table: " + file);
+
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	/**
+	 * List the pieces of a board, if it can be in the tables.
+	 *
+	 * @return The number of pieces, or -1 if there are too many, or castling or en passant
+	 *         is possible.
+	 */
+	private static int gather (Board board, int[] codes, int[] squares) {
+		long occupied = board.getOccupiedBitboard();
+		if (Bitboard.count(occupied) > Material.MAX_PIECES || board.getCastlingRights() != 0)
+			return -1;
+
+		int enPassantSquare = board.getEnPassantSquare();
+		if (enPassantSquare != Board.NO_SQUARE) {
+			Alliance player = board.getCurrentPlayer();
+			if ((Attacks.pawn(player.opponent(), enPassantSquare) & board.getPieceBitboard(PieceType.PAWN, player)) != 0)
+				return -1;
+		}
+
+		int count = 0;
+		while (occupied != 0) {
+			int square = Bitboard.lowestSquare(occupied);
+			occupied = Bitboard.popLowest(occupied);
+			codes[count] = board.getPieceCodeAt(square);
+			squares[count] = square;
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Insertion sort, for the handful of pieces in a position.
+	 */
+	private static void sort (int[] values, int count) {
+		for (int i = 1; i < count; i++) {
+			int value = values[i];
+			int j = i - 1;
+			while (j >= 0 && values[j] > value) {
+				values[j + 1] = values[j];
+				j--;
+			}
+			values[j + 1] = value;
+		}
+	}
+
+	/**
+	 * The mapped tables of one material.
+	 */
+	private static class Table {
+		private final Material material;
+		private final MappedByteBuffer wdl, dtm;
+
+		// True if positions are looked up with the colours swapped.
+		private final boolean flipped;
+
+		private Table (Material material, MappedByteBuffer wdl, MappedByteBuffer dtm, boolean flipped) {
+			this.material = material;
+			this.wdl = wdl;
+			this.dtm = dtm;
+			this.flipped = flipped;
+		}
+	}
+}
@@ -0,0 +1,387 @@
+package tablebase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes endgame tablebases by retrograde analysis.
+ *
+ * Every position of a material is first looked at on its own. Checkmates are lost in 0
+ * plies, and positions whose moves all leave the material, by a capture or a promotion,
+ * are scored from the tables of the materials they lead to, which are made first.
+ *
+ * Then the solved positions are taken in order of their distance to mate, and their
+ * unmoves are played to find the positions that lead to them. A position that can reach
+ * a lost position is won one ply further from mate. A position that can reach a won
+ * position is lost if all of its moves now lead to won positions, which is checked by
+ * playing them out. When no distance is left to look at, every position not solved is a
+ * draw.
+ *
+ * Each step is spread over the threads of a ForkJoinPool, each thread taking its own
+ * range of positions. Threads may write the same position at once, but only ever with
+ * the same result, so no locking is needed.
+ *
+ * En passant is left out. A double pawn push is taken to lead to the position without the
+ * right to capture en passant, and positions in which that capture is possible are not
+ * looked up. In the rare positions where the best play allows such a capture, the result
+ * may be off.
+ *
+ * Usage: TablebaseGenerator <directory> [-threads <n>] <pieces | material>...
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class TablebaseGenerator {
+
+	// A position's value while solving is 0 if it is not solved, or the plies to mate plus
+	// one. Won positions are an odd number of plies from mate, and lost ones an even number.
+	private static final byte UNSOLVED = 0;
+	private static final byte ILLEGAL = (byte) 255;
+	private static final int MAX_PLIES = 253;
+
+	// The most positions one task works through without splitting.
+	private static final int BATCH_SIZE = 1 << 12;
+
+	private final Path directory;
+	private final ForkJoinPool pool;
+	private final Tablebase tablebase;
+
+	/**
+	 * @param directory - Where to write the tables, and find those already made.
+	 * @param pool - The pool to run tasks on.
+	 */
+	public TablebaseGenerator (Path directory, ForkJoinPool pool) throws IOException {
+		Files.createDirectories(directory);
+		this.directory = directory;
+		this.pool = pool;
+		this.tablebase = new Tablebase(directory);
+	}
+
+	/**
+	 * Make the tables of a material, and of every material it leads to, unless they are
+	 * already in the directory.
+	 */
+	public void generate (Material material) throws IOException {
+		if (!material.isCanonical())
+			material = material.flipped();
+		if (material.isBareKings() || Files.exists(this.directory.resolve(material.getName() + Tablebase.WDL_EXTENSION)))
+			return;
+
+		for (Material dependency : material.getDependencies())
+			this.generate(dependency);
+
+		long start = System.currentTimeMillis();
+		byte[] values = this.solve(material);
+		this.write(material, values);
+
+		long wins = 0, draws = 0, losses = 0;
+		int longest = 0;
+		for (byte value : values) {
+			if (value == ILLEGAL)
+				continue;
+			if (value == UNSOLVED) {
+				draws++;
+				continue;
+			}
+			int plies = plies(value);
+			if ((plies & 1) == 1)
+				wins++;
+			else
+				losses++;
+			longest = Math.max(longest, plies);
+		}
+		System.out.format("%s: %d wins, %d draws, %d losses, longest mate %d moves, %d ms\n", material, wins, draws, losses,
+				(longest + 1) / 2, System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * @return The value of every position of the material, numbered as Material numbers them.
+	 */
+	private byte[] solve (Material material) {
+		byte[] values = new byte[material.size()];
+		AtomicInteger deepest = new AtomicInteger(-1);
+
+		this.pool.invoke(new RangeTask((from, to) -> this.initialize(material, values, from, to, deepest), 0, values.length));
+
+		for (int plies = 0; plies <= deepest.get(); plies++) {
+			int current = plies;
+			this.pool.invoke(new RangeTask((from, to) -> this.propagate(material, values, current, from, to, deepest), 0, values.length));
+		}
+		return values;
+	}
+
+	/**
+	 * Mark illegal positions, and solve those whose result is known without the other
+	 * positions of the material: checkmates, stalemates, positions whose moves all leave the
+	 * material, and positions with a move that leaves it and wins.
+	 */
+	private void initialize (Material material, byte[] values, int from, int to, AtomicInteger deepest) {
+		TablePosition position = new TablePosition(material);
+		Moves moves = new Moves(values);
+
+		for (int index = from; index < to; index++) {
+			if (!position.load(index)) {
+				values[index] = ILLEGAL;
+				continue;
+			}
+
+			// Positions of the material are all still unsolved.
+			moves.reset(-1);
+			position.forEachMove(moves);
+
+			int plies;
+			if (moves.count == 0)
+				plies = position.inCheck(position.toMove) ? 0 : -1;
+			else if (moves.fastestWin >= 0)
+				plies = moves.fastestWin;
+			else if (moves.count == moves.exits && !moves.draw)
+				plies = moves.slowestLoss;
+			else
+				plies = -1;
+
+			if (plies >= 0) {
+				values[index] = value(plies);
+				deepest.accumulateAndGet(plies, Math::max);
+			}
+		}
+	}
+
+	/**
+	 * Solve the positions one unmove away from those solved at a distance to mate.
+	 */
+	private void propagate (Material material, byte[] values, int plies, int from, int to, AtomicInteger deepest) {
+		TablePosition position = new TablePosition(material);
+		Moves moves = new Moves(values);
+		byte solved = value(plies);
+		boolean lost = (plies & 1) == 0;
+
+		TablePosition.Visitor predecessors = predecessor -> {
+			int index = predecessor.index();
+			byte value = values[index];
+
+			if (lost) {
+				// A move to a lost position wins, unless a faster win is already known.
+				if (value == UNSOLVED || (value != ILLEGAL && plies(value) > plies + 1)) {
+					values[index] = value(plies + 1);
+					deepest.accumulateAndGet(plies + 1, Math::max);
+				}
+			} else if (value == UNSOLVED) {
+				// The position is lost if every move leads to a position already won.
+				moves.reset(plies);
+				if (predecessor.forEachMove(moves) && !moves.draw && moves.fastestWin < 0 && moves.unsolved == 0) {
+					int loss = Math.max(moves.slowestLoss, plies + 1);
+					values[index] = value(loss);
+					deepest.accumulateAndGet(loss, Math::max);
+				}
+			}
+			return true;
+		};
+
+		for (int index = from; index < to; index++) {
+			if (values[index] != solved)
+				continue;
+			position.load(index);
+			position.forEachUnmove(predecessors);
+		}
+	}
+
+	/**
+	 * Looks at the positions after each move, for the side that makes them.
+	 */
+	private class Moves implements TablePosition.Visitor {
+		private final byte[] values;
+		private final int[] codes = new int[Material.MAX_PIECES], squares = new int[Material.MAX_PIECES];
+		private final Tablebase.Buffers buffers = new Tablebase.Buffers();
+
+		// Positions of the material solved at a greater distance are counted as unsolved.
+		private int horizon;
+
+		private int count, exits, unsolved;
+		private boolean draw;
+		private int fastestWin, slowestLoss;
+
+		private Moves (byte[] values) {
+			this.values = values;
+		}
+
+		private void reset (int horizon) {
+			this.horizon = horizon;
+			this.count = 0;
+			this.exits = 0;
+			this.unsolved = 0;
+			this.draw = false;
+			this.fastestWin = -1;
+			this.slowestLoss = -1;
+		}
+
+		@Override
+		public boolean visit (TablePosition child) {
+			this.count++;
+
+			// The plies to mate of the position after the move, and whether its side to move wins.
+			int plies;
+			boolean childWins;
+
+			if (child.capturedSlot == TablePosition.CAPTURED && child.promotedSlot == TablePosition.CAPTURED) {
+				byte value = this.values[child.index()];
+				if (value == UNSOLVED || plies(value) > this.horizon) {
+					this.unsolved++;
+					return true;
+				}
+				plies = plies(value);
+				childWins = (plies & 1) == 1;
+			} else {
+				this.exits++;
+				int count = child.getPieces(this.codes, this.squares);
+				int result = TablebaseGenerator.this.tablebase.probe(this.codes, this.squares, count, child.toMove, true, this.buffers);
+				if (result == Tablebase.UNKNOWN)
+					throw new IllegalStateException("Missing table for a capture or promotion from " + child.material);
+				if (result == 0) {
+					this.draw = true;
+					return true;
+				}
+				childWins = result > 0;
+				plies = Tablebase.MATE - Math.abs(result);
+			}
+
+			if (childWins)
+				this.slowestLoss = Math.max(this.slowestLoss, plies + 1);
+			else if (this.fastestWin < 0 || plies + 1 < this.fastestWin)
+				this.fastestWin = plies + 1;
+			return true;
+		}
+	}
+
+	/**
+	 * Write the WDL and DTM tables of a material. Each is written to a temporary file first,
+	 * so a table that is there is always whole.
+	 */
+	private void write (Material material, byte[] values) throws IOException {
+		Path wdlFile = this.directory.resolve(material.getName() + Tablebase.WDL_EXTENSION);
+		Path dtmFile = this.directory.resolve(material.getName() + Tablebase.DTM_EXTENSION);
+		Path wdlTemp = this.directory.resolve(material.getName() + Tablebase.WDL_EXTENSION + ".tmp");
+		Path dtmTemp = this.directory.resolve(material.getName() + Tablebase.DTM_EXTENSION + ".tmp");
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(wdlTemp)))) {
+			writeHeader(out, Tablebase.WDL_FORMAT, values.length);
+			for (int i = 0; i < values.length; i += 4) {
+				int packed = 0;
+				for (int j = 0; j < 4 && i + j < values.length; j++)
+					packed |= wdl(values[i + j]) << (j * 2);
+				out.write(packed);
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dtmTemp)))) {
+			writeHeader(out, Tablebase.DTM_FORMAT, values.length);
+			for (byte value : values)
+				out.write(value == UNSOLVED || value == ILLEGAL ? 0 : (plies(value) + 1) / 2);
+		}
+
+		// The DTM table goes in first, so that a WDL table is never there without it.
+		Files.move(dtmTemp, dtmFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.move(wdlTemp, wdlFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeHeader (DataOutputStream out, int format, long size) throws IOException {
+		out.writeInt(Tablebase.MAGIC);
+		out.writeInt(format);
+		out.writeLong(size);
+	}
+
+	private static int wdl (byte value) {
+		if (value == ILLEGAL)
+			return Tablebase.WDL_ILLEGAL;
+		if (value == UNSOLVED)
+			return Tablebase.WDL_DRAW;
+		return (plies(value) & 1) == 1 ? Tablebase.WDL_WIN : Tablebase.WDL_LOSS;
+	}
+
+	private static byte value (int plies) {
+		if (plies > MAX_PLIES)
+			throw new IllegalStateException("A mate is longer than a table can hold: " + plies + " plies.");
+		return (byte) (plies + 1);
+	}
+
+	private static int plies (byte value) {
+		return (value & 0xFF) - 1;
+	}
+
+	/**
+	 * Work done on a range of positions.
+	 */
+	private interface Work {
+
+		public void run (int from, int to);
+
+	}
+
+	/**
+	 * Does work on a range of positions, splitting it in half until it is small.
+	 */
+	private static class RangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Work work;
+		private final int from, to;
+
+		private RangeTask (Work work, int from, int to) {
+			this.work = work;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute () {
+			if (this.to - this.from > BATCH_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new RangeTask(this.work, this.from, middle), new RangeTask(this.work, middle, this.to));
+				return;
+			}
+			this.work.run(this.from, this.to);
+		}
+	}
+
+	/**
+	 * Make the tables of every material with a number of pieces, or of the materials named.
+	 */
+	public static void main (String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: TablebaseGenerator <directory> [-threads <n>] <pieces | material>...");
+			System.err.println("For example: TablebaseGenerator tablebases 3 4, or TablebaseGenerator tablebases KQvKR");
+			return;
+		}
+
+		int first = 1;
+		int threads = Runtime.getRuntime().availableProcessors();
+		if (args[1].equals("-threads") && args.length > 3) {
+			threads = Integer.parseInt(args[2]);
+			first = 3;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		TablebaseGenerator generator = new TablebaseGenerator(Paths.get(args[0]), pool);
+		System.out.format("Generating on %d threads\n", pool.getParallelism());
+
+		for (int i = first; i < args.length; i++) {
+			if (Character.isDigit(args[i].charAt(0))) {
+				int pieces = Integer.parseInt(args[i]);
+				if (pieces < 3 || pieces > Material.MAX_PIECES)
+					throw new IllegalArgumentException("Tables can have from 3 to " + Material.MAX_PIECES + " pieces.");
+				for (Material material : Material.all(pieces))
+					generator.generate(material);
+			} else {
+				generator.generate(Material.of(args[i]));
+			}
+		}
+		pool.shutdown();
+	}
+}
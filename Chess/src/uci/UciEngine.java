@@ -0,0 +1,618 @@
+package uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import book.PolyglotBook;
+import chess.Board;
+import chess.Move;
+import chess.MoveCode;
+import chess.MoveGenerator;
+import chess.Notation;
+import evaluators.Evaluator_3;
+import player.ai.AlphaBetaSelector;
+import player.ai.ParallelSelector;
+import player.ai.TranspositionTable;
+import tablebase.Tablebase;
+
+/**
+ * Speaks the Universal Chess Interface, so the engine can be driven by chess GUIs and
+ * match runners.
+ *
+ * Commands are read on the calling thread, and searches run on a thread of their own, so
+ * the engine still answers isready and stop while it searches. Each finished iteration is
+ * reported with an info line. A search given no limit, or sent "go infinite", runs until
+ * it is stopped, and holds back its best move until then, as the protocol requires.
+ *
+ * With "go ponder" the engine searches the position after the reply it expects, while the
+ * opponent thinks, with no time limit. If the opponent plays that reply, ponderhit turns
+ * the same search into the real one: it carries on with its tree and table as they are,
+ * and is stopped once the time it would have been given for the move has passed. If the
+ * opponent plays something else, the GUI stops the search and starts a new one.
+ *
+ * With OwnBook set and a Polyglot book given by BookFile, go looks the position up in the
+ * book first, and plays a book move at once if there is one. Infinite and ponder searches
+ * do not use the book. With TablebasePath set to a directory of tables made by
+ * TablebaseGenerator, the search looks up positions with few enough pieces in them.
+ *
+ * Supported commands: uci, isready, setoption (Hash, Threads, Ponder, OwnBook, BookFile,
+ * TablebasePath), ucinewgame, position, go (wtime, btime, winc, binc, movestogo, movetime,
+ * depth, nodes, infinite, ponder), ponderhit, stop and quit.
+ *
+ * @author Borna Sadeghi
+ * @version Oct 17, 2026
+ */
+public class UciEngine {
+
+	public static final String NAME = "Spooki Chess Engine";
+	public static final String AUTHOR = "Borna Sadeghi";
+
+	private static final int MAX_DEPTH = 100;
+
+	private static final int MIN_HASH_MB = 1, MAX_HASH_MB = 4096;
+	private static final int MIN_THREADS = 1, MAX_THREADS = 64;
+
+	// Time kept in hand on every move for sending it to the GUI.
+	private static final long MOVE_OVERHEAD_MILLIS = 30;
+
+	// The number of moves the clock is shared over when the GUI does not say.
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+
+	private final BufferedReader in;
+	private final PrintStream out;
+
+	private final ExecutorService searchThread = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "uci-search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// Stops searches whose time starts on ponderhit, once their time is up.
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "uci-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private Board board = new Board(Board.DEFAULT_START_LAYOUT);
+
+	private int hashMb = TranspositionTable.DEFAULT_SIZE_MB;
+	private int numThreads = MIN_THREADS;
+
+	private PolyglotBook book;
+	private boolean ownBook;
+
+	private Tablebase tablebase;
+
+	// Made again, with a new table, when the Hash or Threads option changes.
+	private ParallelSelector selector;
+
+	// The running search, and what lets a search that has to wait send its best move.
+	private Future<?> search;
+	private CountDownLatch release;
+	private volatile long searchStart;
+	private int searchId;
+
+	// While pondering, how long the search may run after ponderhit, or -1 for no limit,
+	// and whether it still has to wait for stop after that.
+	private boolean pondering;
+	private long ponderMillis;
+	private boolean ponderWaitsForStop;
+	private ScheduledFuture<?> stopTimer;
+
+	public UciEngine (InputStream in, PrintStream out) {
+		this.in = new BufferedReader(new InputStreamReader(in));
+		this.out = out;
+	}
+
+	public static void main (String[] args) throws IOException {
+		new UciEngine(System.in, System.out).run();
+	}
+
+	/**
+	 * Answer commands until quit is sent or the input ends.
+	 */
+	public void run () throws IOException {
+		try {
+			String line;
+			while ((line = this.in.readLine()) != null) {
+				if (!this.handle(line.trim()))
+					break;
+			}
+		} finally {
+			this.stop();
+			this.searchThread.shutdownNow();
+			this.timer.shutdownNow();
+			if (this.selector != null)
+				this.selector.shutdown();
+			if (this.book != null)
+				this.book.close();
+		}
+	}
+
+	/**
+	 * @param line - A command from the GUI.
+	 * @return False if the engine should quit.
+	 */
+	private boolean handle (String line) {
+		if (line.isEmpty())
+			return true;
+		String[] tokens = line.split("\\s+");
+
+		switch (tokens[0]) {
+		case "uci":
+			this.send("id name " + NAME);
+			this.send("id author " + AUTHOR);
+			this.send(String.format("option name Hash type spin default %d min %d max %d", TranspositionTable.DEFAULT_SIZE_MB,
+					MIN_HASH_MB, MAX_HASH_MB));
+			this.send(String.format("option name Threads type spin default %d min %d max %d", MIN_THREADS, MIN_THREADS, MAX_THREADS));
+			this.send("option name Ponder type check default false");
+			this.send("option name OwnBook type check default false");
+			this.send("option name BookFile type string default <empty>");
+			this.send("option name TablebasePath type string default <empty>");
+			this.send("uciok");
+			break;
+		case "isready":
+			// Allocating a new table can take a while, so it is done before answering.
+			if (!this.isSearching())
+				this.selector();
+			this.send("readyok");
+			break;
+		case "setoption":
+			this.waitForSearch();
+			this.setOption(tokens);
+			break;
+		case "ucinewgame":
+			this.waitForSearch();
+			if (this.selector != null)
+				this.selector.getTranspositionTable().clear();
+			break;
+		case "position":
+			this.waitForSearch();
+			this.setPosition(tokens);
+			break;
+		case "go":
+			this.waitForSearch();
+			this.go(tokens);
+			break;
+		case "ponderhit":
+			this.ponderHit();
+			break;
+		case "stop":
+			this.stop();
+			break;
+		case "quit":
+			return false;
+		default:
+			// Unknown commands are ignored, as the protocol asks.
+			break;
+		}
+		return true;
+	}
+
+	/**
+	 * setoption name <name> value <value>
+	 */
+	private void setOption (String[] tokens) {
+		String name = joinBetween(tokens, "name", "value");
+		String value = joinBetween(tokens, "value", null);
+
+		// The engine only ponders when told to with go ponder, so there is nothing to set.
+		if (name.equalsIgnoreCase("Ponder"))
+			return;
+		if (name.equalsIgnoreCase("OwnBook")) {
+			this.ownBook = value.equalsIgnoreCase("true");
+			return;
+		}
+		if (name.equalsIgnoreCase("BookFile")) {
+			this.openBook(value);
+			return;
+		}
+		if (name.equalsIgnoreCase("TablebasePath")) {
+			this.openTablebase(value);
+			return;
+		}
+
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			this.send("info string Invalid value for option " + name + ": " + value);
+			return;
+		}
+
+		if (name.equalsIgnoreCase("Hash")) {
+			this.hashMb = Math.max(MIN_HASH_MB, Math.min(MAX_HASH_MB, number));
+		} else if (name.equalsIgnoreCase("Threads")) {
+			this.numThreads = Math.max(MIN_THREADS, Math.min(MAX_THREADS, number));
+		} else {
+			this.send("info string Unknown option: " + name);
+			return;
+		}
+
+		if (this.selector != null) {
+			this.selector.shutdown();
+			this.selector = null;
+		}
+	}
+
+	/**
+	 * position [startpos | fen <fen>] [moves <move>...]
+	 */
+	private void setPosition (String[] tokens) {
+		int movesIndex = tokens.length;
+		for (int i = 1; i < tokens.length; i++) {
+			if (tokens[i].equals("moves")) {
+				movesIndex = i;
+				break;
+			}
+		}
+
+		Board board;
+		try {
+			if (tokens.length > 1 && tokens[1].equals("fen"))
+				board = new Board(String.join(" ", Arrays.copyOfRange(tokens, 2, movesIndex)));
+			else
+				board = new Board(Board.DEFAULT_START_LAYOUT);
+		} catch (RuntimeException e) {
+			this.send("info string " + e.getMessage());
+			return;
+		}
+
+		int[] moves = new int[MoveGenerator.MAX_MOVES];
+		for (int i = movesIndex + 1; i < tokens.length; i++) {
+			int count = board.getLegalMoves(board.getCurrentPlayer(), moves);
+			int move = Notation.fromCoordinateNotation(tokens[i], moves, count);
+			if (move == MoveCode.NONE) {
+				this.send("info string Illegal move: " + tokens[i]);
+				break;
+			}
+			board.makeMove(move);
+		}
+
+		this.board = board;
+	}
+
+	/**
+	 * go [wtime <ms>] [btime <ms>] [winc <ms>] [binc <ms>] [movestogo <n>] [movetime <ms>]
+	 * [depth <n>] [nodes <n>] [infinite] [ponder]
+	 */
+	private void go (String[] tokens) {
+		long whiteTime = -1, blackTime = -1, whiteIncrement = 0, blackIncrement = 0, moveTime = -1;
+		long nodeLimit = Long.MAX_VALUE;
+		int movesToGo = 0, depth = MAX_DEPTH;
+		boolean infinite = false, ponder = false;
+
+		for (int i = 1; i < tokens.length; i++) {
+			boolean hasValue = i + 1 < tokens.length;
+			try {
+				switch (tokens[i]) {
+				case "wtime":
+					whiteTime = hasValue ? Long.parseLong(tokens[++i]) : whiteTime;
+					break;
+				case "btime":
+					blackTime = hasValue ? Long.parseLong(tokens[++i]) : blackTime;
+					break;
+				case "winc":
+					whiteIncrement = hasValue ? Long.parseLong(tokens[++i]) : whiteIncrement;
+					break;
+				case "binc":
+					blackIncrement = hasValue ? Long.parseLong(tokens[++i]) : blackIncrement;
+					break;
+				case "movestogo":
+					movesToGo = hasValue ? Integer.parseInt(tokens[++i]) : movesToGo;
+					break;
+				case "movetime":
+					moveTime = hasValue ? Long.parseLong(tokens[++i]) : moveTime;
+					break;
+				case "depth":
+					depth = hasValue ? Math.max(1, Math.min(MAX_DEPTH, Integer.parseInt(tokens[++i]))) : depth;
+					break;
+				case "nodes":
+					nodeLimit = hasValue ? Math.max(1, Long.parseLong(tokens[++i])) : nodeLimit;
+					break;
+				case "infinite":
+					infinite = true;
+					break;
+				case "ponder":
+					ponder = true;
+					break;
+				default:
+					break;
+				}
+			} catch (NumberFormatException e) {
+				this.send("info string Invalid number in go command: " + tokens[i]);
+			}
+		}
+
+		// There is no time to save on a search that waits for stop or ponderhit anyway.
+		if (!infinite && !ponder) {
+			int bookMove = this.bookMove();
+			if (bookMove != MoveCode.NONE) {
+				this.pondering = false;
+				this.send("bestmove " + MoveCode.toString(bookMove));
+				return;
+			}
+		}
+
+		long timeLeft = this.board.isWhiteTurn() ? whiteTime : blackTime;
+		long increment = this.board.isWhiteTurn() ? whiteIncrement : blackIncrement;
+
+		long searchMillis = -1;
+		if (!infinite) {
+			if (moveTime >= 0)
+				searchMillis = Math.max(1, moveTime - MOVE_OVERHEAD_MILLIS);
+			else if (timeLeft >= 0)
+				searchMillis = allocateTime(timeLeft, increment, movesToGo);
+		}
+
+		// With nothing to stop it, a search waits for stop like an infinite one does.
+		boolean waitForStop = infinite || (searchMillis < 0 && depth == MAX_DEPTH && nodeLimit == Long.MAX_VALUE);
+
+		// A ponder search has no time limit until ponderhit, and until then it may not send
+		// its move.
+		this.pondering = ponder;
+		this.ponderMillis = searchMillis;
+		this.ponderWaitsForStop = waitForStop;
+
+		long deadline = ponder || searchMillis < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + searchMillis;
+		this.startSearch(new Board(this.board), depth, deadline, nodeLimit, waitForStop || ponder);
+	}
+
+	/**
+	 * Open the book at the given path, closing the one in use. An empty path, or
+	 * "<empty>", leaves no book open.
+	 */
+	private void openBook (String path) {
+		try {
+			if (this.book != null)
+				this.book.close();
+			this.book = null;
+
+			if (!path.isEmpty() && !path.equals("<empty>")) {
+				this.book = new PolyglotBook(Paths.get(path));
+				this.send("info string Opened book " + path + " with " + this.book.size() + " entries");
+			}
+		} catch (IOException e) {
+			this.send("info string Could not open book " + path + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Use the tables in the given directory, or none if it is empty or "<empty>".
+	 */
+	private void openTablebase (String path) {
+		if (this.tablebase != null)
+			this.tablebase.close();
+		this.tablebase = null;
+
+		if (!path.isEmpty() && !path.equals("<empty>")) {
+			try {
+				this.tablebase = new Tablebase(Paths.get(path));
+				this.send("info string Found tablebases of up to " + this.tablebase.getMaxPieces() + " pieces in " + path);
+			} catch (IOException e) {
+				this.send("info string Could not open tablebases in " + path + ": " + e.getMessage());
+			}
+		}
+
+		if (this.selector != null)
+			this.selector.setTablebase(this.tablebase);
+	}
+
+	/**
+	 * @return A move from the book for the current position, or MoveCode.NONE if the book
+	 *         is not used or has no move.
+	 */
+	private int bookMove () {
+		if (!this.ownBook || this.book == null)
+			return MoveCode.NONE;
+
+		return this.book.pickMove(this.board);
+	}
+
+	private void startSearch (Board position, int depth, long deadline, long nodeLimit, boolean waitForRelease) {
+		ParallelSelector selector = this.selector();
+		CountDownLatch release = new CountDownLatch(1);
+
+		synchronized (this) {
+			this.searchId++;
+			// Cleared here rather than on the search thread, so a stop sent straight away is kept.
+			selector.clearStop();
+		}
+		selector.setListener(this::sendInfo);
+		this.release = release;
+		this.searchStart = System.currentTimeMillis();
+
+		this.search = this.searchThread.submit(() -> {
+			Move best = null;
+			try {
+				best = selector.bestMove(position, depth, deadline, nodeLimit);
+				if (waitForRelease)
+					release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (RuntimeException e) {
+				this.send("info string Search failed: " + e);
+			}
+			this.sendBestMove(best, selector.getPrincipalVariation());
+		});
+	}
+
+	/**
+	 * The opponent played the expected move, so the ponder search becomes the real search.
+	 */
+	private void ponderHit () {
+		if (!this.pondering)
+			return;
+		this.pondering = false;
+
+		// The search keeps everything it has found so far, and only now starts its clock.
+		if (this.ponderMillis >= 0) {
+			int id = this.searchId;
+			this.searchStart = System.currentTimeMillis();
+			this.stopTimer = this.timer.schedule(() -> this.timeUp(id), this.ponderMillis, TimeUnit.MILLISECONDS);
+		}
+		if (!this.ponderWaitsForStop)
+			this.release.countDown();
+	}
+
+	/**
+	 * Stop a search whose time has run out, unless another search has started since.
+	 */
+	private synchronized void timeUp (int id) {
+		if (id == this.searchId && this.selector != null)
+			this.selector.stop();
+	}
+
+	/**
+	 * Stop the running search, if there is one. Its best move is still sent.
+	 */
+	private void stop () {
+		if (this.release != null) {
+			this.pondering = false;
+			this.selector.stop();
+			this.release.countDown();
+		}
+	}
+
+	/**
+	 * Stop the running search and wait for it to send its move, so that nothing it uses
+	 * changes under it.
+	 */
+	private void waitForSearch () {
+		if (this.search == null)
+			return;
+
+		this.stop();
+		if (this.stopTimer != null) {
+			this.stopTimer.cancel(false);
+			this.stopTimer = null;
+		}
+		try {
+			this.search.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			this.send("info string Search failed: " + e.getCause());
+		}
+		this.search = null;
+		this.release = null;
+	}
+
+	private boolean isSearching () {
+		return this.search != null && !this.search.isDone();
+	}
+
+	/**
+	 * @return The selector for the current options, made if the options have changed.
+	 */
+	private ParallelSelector selector () {
+		if (this.selector == null) {
+			this.selector = new ParallelSelector(MAX_DEPTH, new Evaluator_3(), this.numThreads, new TranspositionTable(this.hashMb));
+			this.selector.setTablebase(this.tablebase);
+		}
+		return this.selector;
+	}
+
+	/**
+	 * Send the best move, along with the reply expected to it, for the GUI to let the
+	 * engine ponder on.
+	 */
+	private void sendBestMove (Move best, int[] pv) {
+		if (best == null) {
+			this.send("bestmove 0000");
+			return;
+		}
+
+		String move = Notation.toCoordinateNotation(best);
+		if (pv.length >= 2 && MoveCode.sameMove(pv[0], best.encode()))
+			this.send("bestmove " + move + " ponder " + MoveCode.toString(pv[1]));
+		else
+			this.send("bestmove " + move);
+	}
+
+	/**
+	 * Report a finished iteration. Called on the search thread.
+	 */
+	private void sendInfo (int depth, int score, long nodes, int[] pv, int pvLength) {
+		long millis = Math.max(1, System.currentTimeMillis() - this.searchStart);
+
+		StringBuilder info = new StringBuilder("info depth ").append(depth).append(" score ");
+		appendScore(score, info);
+		info.append(" nodes ").append(nodes).append(" nps ").append(nodes * 1000 / millis).append(" time ").append(millis)
+				.append(" hashfull ").append(this.selector.getTranspositionTable().hashfull());
+
+		if (pvLength > 0) {
+			info.append(" pv");
+			for (int i = 0; i < pvLength; i++)
+				info.append(' ').append(MoveCode.toString(pv[i]));
+		}
+		this.send(info.toString());
+	}
+
+	/**
+	 * Write a score as centipawns, or as the number of moves to mate.
+	 */
+	private static void appendScore (int score, StringBuilder out) {
+		// Mates found in the tablebase can be further away than the search ever looks.
+		int matePlies = AlphaBetaSelector.MATE - Math.abs(score);
+		if (matePlies < AlphaBetaSelector.MATE - AlphaBetaSelector.TABLEBASE_WIN) {
+			int mateMoves = (matePlies + 1) / 2;
+			out.append("mate ").append(score > 0 ? mateMoves : -mateMoves);
+		} else {
+			out.append("cp ").append(score);
+		}
+	}
+
+	/**
+	 * @param timeLeft - The time left on the engine's clock, in milliseconds.
+	 * @param increment - The time added to the clock after each move.
+	 * @param movesToGo - The number of moves until the next time control, or 0 if the
+	 *            clock has to last the rest of the game.
+	 * @return How long to think about this move, in milliseconds.
+	 */
+	static long allocateTime (long timeLeft, long increment, int movesToGo) {
+		long time = timeLeft / (movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO) + increment * 3 / 4;
+
+		// Never plan to use more than half of what is left.
+		time = Math.min(time, timeLeft / 2);
+		return Math.max(1, time - MOVE_OVERHEAD_MILLIS);
+	}
+
+	/**
+	 * @return The tokens after the start keyword and before the end keyword, joined by spaces.
+	 */
+	private static String joinBetween (String[] tokens, String start, String end) {
+		StringBuilder joined = new StringBuilder();
+		boolean inside = false;
+		for (String token : tokens) {
+			if (inside && token.equals(end))
+				break;
+			if (inside)
+				joined.append(joined.length() > 0 ? " " : "").append(token);
+			if (token.equals(start))
+				inside = true;
+		}
+		return joined.toString();
+	}
+
+	private void send (String line) {
+		synchronized (this.out) {
+			this.out.println(line);
+			this.out.flush();
+		}
+	}
+}